@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3" // 마이크로벤치마크 (src/jmh/java)
 }
 
 group = "com.example"
@@ -35,9 +36,54 @@ dependencies {
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.kafka:spring-kafka-test")
+    testImplementation("org.apache.kafka:kafka-streams-test-utils") // 토폴로지 단위 테스트용 TopologyTestDriver
+    testImplementation("org.hdrhistogram:HdrHistogram") // 부하 테스트 지연 시간 분포 (버전은 Spring Boot BOM 관리)
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    jmh("org.apache.kafka:kafka-streams-test-utils") // 토폴로지 벤치마크용 TopologyTestDriver
+}
+
+jmh {
+    // ./gradlew jmh 로 실행, 결과는 build/results/jmh/results.json
+    // 일부만 실행: ./gradlew jmh -Pjmh.includes=SerdesBenchmark (정규식)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // 처리 시간과 함께 연산당 할당량(gc.alloc.rate.norm)을 기록
+    profilers.set(listOf("gc"))
+    // 커밋 간 비교를 위해 JSON으로 저장 (예: jmh.morethan.io 또는 이전 results.json과 diff)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    (findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
+}
+
+// 부하 측정 테스트(@Tag("load"))는 기본 test 태스크에서 제외
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+// 임베디드 Kafka로 엔드투엔드 처리량/지연 시간 측정 (결과는 build/reports/load-test/summary.txt)
+// 예: ./gradlew loadTest -Pload.rate=1000 -Pload.duration-seconds=60
+tasks.register<Test>("loadTest") {
+    description = "임베디드 Kafka 엔드투엔드 부하 측정"
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    // 측정은 매번 다시 실행
+    outputs.upToDateWhen { false }
+    testLogging {
+        showStandardStreams = true
+    }
+    // -Pload.* 를 테스트 JVM 시스템 프로퍼티로 전달
+    project.properties.filterKeys { it.startsWith("load.") }
+            .forEach { (key, value) -> systemProperty(key, value.toString()) }
 }
\ No newline at end of file
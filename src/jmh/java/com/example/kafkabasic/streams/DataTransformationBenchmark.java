@@ -0,0 +1,55 @@
+package com.example.kafkabasic.streams;
+
+import com.example.kafkabasic.streams.model.TransformedUserData;
+import com.example.kafkabasic.streams.model.UserData;
+import com.example.kafkabasic.streams.serde.JsonSerdes;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 데이터 변환 파이프라인의 레코드당 처리 비용 벤치마크
+ *
+ * transform: DataTransformationStream.transformUserData만 (역직렬화된 UserData -> TransformedUserData)
+ * recordPath: 토폴로지가 레코드마다 하는 일 전체 (바이트 역직렬화 -> 변환 -> 바이트 직렬화)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataTransformationBenchmark {
+
+    private static final String TOPIC = "user-data-input";
+
+    private final DataTransformationStream stream = new DataTransformationStream();
+    private final Deserializer<UserData> deserializer = JsonSerdes.USER_DATA.deserializer();
+    private final Serializer<TransformedUserData> serializer = JsonSerdes.TRANSFORMED_USER_DATA.serializer();
+
+    private byte[] json;
+    private UserData userData;
+
+    @Setup
+    public void setUp() {
+        json = "{\"id\":\"123\",\"name\":\"홍길동\",\"email\":\"hong@example.com\",\"age\":30,\"address\":\"서울시 강남구\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        userData = deserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public TransformedUserData transform() {
+        return stream.transformUserData(userData);
+    }
+
+    @Benchmark
+    public byte[] recordPath() {
+        return serializer.serialize(TOPIC, stream.transformUserData(deserializer.deserialize(TOPIC, json)));
+    }
+}
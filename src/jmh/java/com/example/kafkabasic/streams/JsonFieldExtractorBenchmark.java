@@ -0,0 +1,68 @@
+package com.example.kafkabasic.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 필드 하나를 읽을 때 JsonFieldExtractor와 Jackson readTree를 비교하는 벤치마크
+ *
+ * small: 일반적인 트랜잭션 메시지, large: amount 필드 앞에 큰 중첩 메타데이터가 있는 메시지
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonFieldExtractorBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFieldExtractor AMOUNT = JsonFieldExtractor.forField("amount");
+
+    @Param({"small", "large"})
+    public String payload;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = ("small".equals(payload) ? smallPayload() : largePayload()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public double extractor() {
+        return AMOUNT.extractDouble(json, 0.0);
+    }
+
+    @Benchmark
+    public double readTree() throws IOException {
+        return OBJECT_MAPPER.readTree(json).path("amount").asDouble(0.0);
+    }
+
+    private static String smallPayload() {
+        return "{\"transactionId\":\"tx-1001\",\"amount\":1500000,\"timestamp\":1700000000000,\"userId\":\"user-42\"}";
+    }
+
+    private static String largePayload() {
+        StringBuilder metadata = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) {
+                metadata.append(',');
+            }
+            metadata.append("{\"seq\":").append(i)
+                    .append(",\"amount\":").append(i * 10)
+                    .append(",\"note\":\"항목 \\\"").append(i).append("\\\" 설명\"}");
+        }
+        metadata.append(']');
+        return "{\"transactionId\":\"tx-1001\",\"userId\":\"user-42\",\"metadata\":" + metadata
+                + ",\"timestamp\":1700000000000,\"amount\":1500000.25}";
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.kafkabasic.streams;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 필드 하나로 필터링/라우팅하는 토폴로지의 레코드당 비용 벤치마크
+ *
+ * importantEvent: NotificationStream의 중요 이벤트 필터 (priority 필드)
+ * transactionRoute: TransactionFilterStream의 금액별 토픽 결정 (amount 필드)
+ *
+ * 결과 단위는 레코드당 시간입니다. 필드 위치와 값이 레코드마다 달라 분기 예측이 고정되지 않도록 섞었습니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecordFilterBenchmark {
+
+    private static final int RECORDS = 1_000;
+
+    private byte[][] events;
+    private byte[][] transactions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        events = new byte[RECORDS][];
+        transactions = new byte[RECORDS][];
+        for (int i = 0; i < RECORDS; i++) {
+            String event = random.nextBoolean()
+                    ? "{\"eventId\":\"ev-" + i + "\",\"type\":\"LOGIN\",\"priority\":" + random.nextInt(10) + ",\"message\":\"사용자 로그인\"}"
+                    : "{\"eventId\":\"ev-" + i + "\",\"message\":\"결제 실패 알림\",\"type\":\"PAYMENT\",\"priority\":" + random.nextInt(10) + "}";
+            events[i] = event.getBytes(StandardCharsets.UTF_8);
+
+            long amount = (long) Math.pow(10, 3 + random.nextInt(5)) * (1 + random.nextInt(9));
+            transactions[i] = ("{\"transactionId\":\"tx-" + i + "\",\"amount\":" + amount
+                    + ",\"timestamp\":1700000000000,\"userId\":\"user-" + random.nextInt(100) + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void importantEvent(Blackhole blackhole) {
+        for (byte[] event : events) {
+            blackhole.consume(NotificationStream.IMPORTANT_EVENT.test(null, event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void transactionRoute(Blackhole blackhole) {
+        for (byte[] transaction : transactions) {
+            blackhole.consume(TransactionFilterStream.destinationTopic(transaction));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String Serde와 ByteArray Serde의 레코드당 역직렬화/직렬화 비용 비교
+ *
+ * 값을 그대로 전달하는 토폴로지(알림, 트랜잭션 필터링)에서 String Serde를 쓰면
+ * 레코드마다 UTF-8 디코딩/인코딩과 문자열 할당이 두 번 생깁니다. -prof gc 결과의 gc.alloc.rate.norm으로 비교합니다.
+ * size: 값 크기 (bytes, 한글 포함 UTF-8)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerdesBenchmark {
+
+    private static final String TOPIC = "events-input";
+
+    private final Serde<String> stringSerde = Serdes.String();
+    private final Serde<byte[]> byteArraySerde = Serdes.ByteArray();
+
+    @Param({"128", "4096"})
+    public int size;
+
+    private byte[] value;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"eventId\":\"ev-1\",\"priority\":7,\"message\":\"");
+        while (json.length() < size) {
+            json.append("중요 이벤트 message ");
+        }
+        json.append("\"}");
+        value = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] stringRoundTrip() {
+        String decoded = stringSerde.deserializer().deserialize(TOPIC, value);
+        return stringSerde.serializer().serialize(TOPIC, decoded);
+    }
+
+    @Benchmark
+    public byte[] byteArrayRoundTrip() {
+        byte[] decoded = byteArraySerde.deserializer().deserialize(TOPIC, value);
+        return byteArraySerde.serializer().serialize(TOPIC, decoded);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.kafkabasic.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 텍스트 말뭉치 생성기
+ *
+ * 자연어처럼 단어 빈도가 Zipf 분포(s = 1.0)를 따르도록 생성합니다.
+ * 대소문자, 문장 부호, 숫자, 한글 단어를 섞고, 시드가 고정되어 있어 실행마다 같은 말뭉치가 만들어집니다.
+ */
+final class TextCorpus {
+
+    private static final String[] SYLLABLES = {
+            "ka", "fka", "str", "eam", "to", "pic", "par", "ti", "tion", "log",
+            "off", "set", "con", "sum", "er", "pro", "du", "cer", "bro", "ker"
+    };
+    private static final String[] KOREAN_WORDS = {"카프카", "스트림", "토픽", "파티션", "메시지", "처리"};
+    private static final String[] PUNCTUATION = {",", ".", "!", "?", ";", " -", ":"};
+
+    private TextCorpus() {
+    }
+
+    /**
+     * @param lines 줄 수
+     * @param wordsPerLine 줄당 평균 단어 수
+     * @param vocabularySize 어휘 크기
+     */
+    static List<String> generate(int lines, int wordsPerLine, int vocabularySize) {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(vocabularySize, random);
+        double[] cumulative = zipfCumulative(vocabularySize);
+
+        List<String> corpus = new ArrayList<>(lines);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            line.setLength(0);
+            int words = wordsPerLine / 2 + random.nextInt(wordsPerLine + 1);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    line.append(' ');
+                }
+                String word = vocabulary[sample(cumulative, random.nextDouble())];
+                // 문장 첫 단어는 대문자로 시작
+                if (w == 0) {
+                    line.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else {
+                    line.append(word);
+                }
+                if (random.nextInt(8) == 0) {
+                    line.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+                }
+            }
+            corpus.add(line.toString());
+        }
+        return corpus;
+    }
+
+    private static String[] vocabulary(int size, Random random) {
+        String[] vocabulary = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (i < KOREAN_WORDS.length * 4 && i % 4 == 3) {
+                vocabulary[i] = KOREAN_WORDS[i / 4];
+                continue;
+            }
+            StringBuilder word = new StringBuilder();
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            if (random.nextInt(50) == 0) {
+                word.append(random.nextInt(100));
+            }
+            vocabulary[i] = word.append(i).toString();
+        }
+        return vocabulary;
+    }
+
+    private static double[] zipfCumulative(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double p) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < p) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.Stores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단어 수 세기 토폴로지 처리량 벤치마크 (TopologyTestDriver 사용)
+ *
+ * baseline: selectKey -> groupByKey -> count (단어 출현마다 리파티션)
+ * combiner: WordCountStream (태스크 내 부분 합계 후 리파티션)
+ *
+ * 결과 단위는 입력 줄(line) 처리량입니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WordCountTopologyBenchmark {
+
+    private static final String INPUT_TOPIC = "word-count-input";
+    private static final String OUTPUT_TOPIC = "word-count-output";
+    private static final int LINES = 2_000;
+
+    @Param({"baseline", "combiner"})
+    public String topology;
+
+    private List<String> corpus;
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> input;
+    private TestOutputTopic<String, Long> output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        corpus = TextCorpus.generate(LINES, 12, 5_000);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "word-count-benchmark");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, Files.createTempDirectory("word-count-benchmark").toString());
+
+        driver = new TopologyTestDriver(buildTopology(), props);
+        input = driver.createInputTopic(INPUT_TOPIC, new StringSerializer(), new StringSerializer());
+        output = driver.createOutputTopic(OUTPUT_TOPIC, new StringDeserializer(), new LongDeserializer());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int processCorpus() {
+        for (String line : corpus) {
+            input.pipeInput(line);
+        }
+        // 컴바이너 플러시 주기 도달 (baseline에는 영향 없음)
+        driver.advanceWallClockTime(Duration.ofSeconds(1));
+        // 출력 레코드가 드라이버에 쌓이지 않도록 비움
+        return output.readRecordsToList().size();
+    }
+
+    private Topology buildTopology() {
+        StreamsBuilder builder = new StreamsBuilder();
+        if ("combiner".equals(topology)) {
+            new WordCountStream(1_000, 10_000, List.of(), 1, 100).buildPipeline(builder);
+        } else {
+            builder.stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                    .mapValues(value -> value.toLowerCase())
+                    .flatMapValues(value -> Arrays.asList(value.split("\\W+")))
+                    .filter((key, value) -> !value.isEmpty())
+                    .selectKey((key, value) -> value)
+                    .groupByKey()
+                    .count(Materialized.<String, Long>as(Stores.persistentKeyValueStore("counts"))
+                            .withKeySerde(Serdes.String())
+                            .withValueSerde(Serdes.Long()))
+                    .toStream()
+                    .to(OUTPUT_TOPIC, Produced.with(Serdes.String(), Serdes.Long()));
+        }
+        return builder.build();
+    }
+}
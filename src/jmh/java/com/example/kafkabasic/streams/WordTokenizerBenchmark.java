@@ -0,0 +1,59 @@
+package com.example.kafkabasic.streams;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단어 분리 방식 비교 벤치마크
+ *
+ * splitChain: 기존 방식 (toLowerCase -> split("\\W+") -> 빈 단어 제외)
+ * tokenizer: WordTokenizer (한 번의 문자 순회로 소문자 변환과 분리)
+ *
+ * 결과 단위는 줄(line)당 시간입니다. -prof gc 로 할당량도 함께 비교할 수 있습니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WordTokenizerBenchmark {
+
+    private static final int LINES = 1_000;
+
+    private List<String> corpus;
+    private WordTokenizer tokenizer;
+
+    @Setup
+    public void setUp() {
+        corpus = TextCorpus.generate(LINES, 12, 5_000);
+        tokenizer = new WordTokenizer(List.of(), 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void splitChain(Blackhole blackhole) {
+        for (String line : corpus) {
+            for (String word : line.toLowerCase().split("\\W+")) {
+                if (!word.isEmpty()) {
+                    blackhole.consume(word);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void tokenizer(Blackhole blackhole) {
+        for (String line : corpus) {
+            tokenizer.tokenize(line, blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.kafkabasic.actuator;
+
+import com.example.kafkabasic.service.TransactionPipelineService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exactly-once 파이프라인의 트랜잭션 크기별 처리량을 보여주는 Actuator 엔드포인트
+ * /actuator/exactlyonce 에서 트랜잭션 크기 구간마다 평균 트랜잭션 시간과 초당 레코드 수를 확인할 수 있습니다.
+ */
+@Component
+@Endpoint(id = "exactlyonce")
+public class ExactlyOnceEndpoint {
+
+    private final TransactionPipelineService transactionPipelineService;
+
+    public ExactlyOnceEndpoint(TransactionPipelineService transactionPipelineService) {
+        this.transactionPipelineService = transactionPipelineService;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> throughput() {
+        return transactionPipelineService.throughputBySize();
+    }
+}
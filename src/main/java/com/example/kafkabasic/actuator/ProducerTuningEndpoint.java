@@ -0,0 +1,28 @@
+package com.example.kafkabasic.actuator;
+
+import com.example.kafkabasic.service.ProducerBatchTuner;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Producer 배치 튜닝 상태를 보여주는 Actuator 엔드포인트
+ * /actuator/producertuning 에서 현재 linger.ms, batch.size, 압축 방식과 배치 채움률을 확인할 수 있습니다.
+ */
+@Component
+@Endpoint(id = "producertuning")
+public class ProducerTuningEndpoint {
+
+    private final ProducerBatchTuner producerBatchTuner;
+
+    public ProducerTuningEndpoint(ProducerBatchTuner producerBatchTuner) {
+        this.producerBatchTuner = producerBatchTuner;
+    }
+
+    @ReadOperation
+    public Map<String, Object> tuning() {
+        return producerBatchTuner.snapshot();
+    }
+}
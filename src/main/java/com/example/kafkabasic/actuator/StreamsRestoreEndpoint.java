@@ -0,0 +1,28 @@
+package com.example.kafkabasic.actuator;
+
+import com.example.kafkabasic.streams.StateRestoreTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 상태 저장소 복구 진행 상황을 보여주는 Actuator 엔드포인트
+ * /actuator/streamsrestore 에서 파이프라인/저장소별 복구 진행률, 초당 복구 레코드 수, 예상 남은 시간을 확인할 수 있습니다.
+ */
+@Component
+@Endpoint(id = "streamsrestore")
+public class StreamsRestoreEndpoint {
+
+    private final StateRestoreTracker stateRestoreTracker;
+
+    public StreamsRestoreEndpoint(StateRestoreTracker stateRestoreTracker) {
+        this.stateRestoreTracker = stateRestoreTracker;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> restores() {
+        return stateRestoreTracker.snapshot();
+    }
+}
@@ -1,60 +1,141 @@
 package com.example.kafkabasic.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
     private static final Logger log = LoggerFactory.getLogger(KafkaConfig.class);
-    private static final String DLQ_SUFFIX = ".DLQ";
+
+    // Kafka 브로커 주소 (spring.kafka.bootstrap-servers)
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    // 처리량 중심 Producer 설정 (linger.ms와 batch.size는 ProducerBatchTuner가 실행 중 조정)
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.buffer-memory:67108864}")
+    private long producerBufferMemory;
+
+    // REST 유입 Producer가 요청 스레드를 붙잡는 시간 상한
+    @Value("${app.kafka.producer.max-block-ms:2000}")
+    private long producerMaxBlockMs;
+
+    @Value("${app.kafka.producer.request-timeout-ms:10000}")
+    private int producerRequestTimeoutMs;
+
+    @Value("${app.kafka.producer.delivery-timeout-ms:25000}")
+    private int producerDeliveryTimeoutMs;
+
+    // Producer/Consumer 클라이언트 메트릭(전송률, 요청/fetch 지연 등)을 바인딩할 레지스트리
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 애플리케이션 전체에서 공유하는 AdminClient
+     * 대시보드, 헬스 체크, 관리 API가 요청마다 연결을 새로 만들지 않도록 하나만 생성하고 종료 시 닫습니다.
+     */
+    @Bean(destroyMethod = "close")
+    public AdminClient adminClient(KafkaAdmin kafkaAdmin) {
+        return AdminClient.create(kafkaAdmin.getConfigurationProperties());
+    }
 
     /**
      * 일반 Producer (트랜잭션 없음)
+     * 버스트성 REST 유입을 적은 수의 브로커 요청으로 묶기 위해 배치/압축 설정을 적용합니다.
+     * ProducerBatchTuner가 linger.ms와 batch.size를 바꿀 때 사용 중인 Producer를 닫지 않도록
+     * 새 Producer로 교체한 뒤 이전 Producer를 drain하는 팩토리를 사용합니다.
      */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ReconfigurableProducerFactory<String, String> producerFactory() {
         Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
-        return new DefaultKafkaProducerFactory<>(props);
+
+        // 처리량 설정
+        props.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, producerBufferMemory);
+
+        // 전송 엔드포인트는 ack를 기다려 응답하므로, 버퍼가 가득 차거나 브로커가 응답하지 않을 때
+        // 요청이 오래 붙잡혀 있지 않도록 send 대기와 전송 완료 시간에 상한을 둠
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, producerRequestTimeoutMs);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, producerDeliveryTimeoutMs);
+
+        // 이전 Producer를 빌려 간 전송은 send 호출(최대 max.block.ms)이 끝나면 반납되므로 그만큼 기다린 뒤 닫음
+        return new ReconfigurableProducerFactory<>(props,
+                configs -> instrument(new DefaultKafkaProducerFactory<>(configs), "default"),
+                Duration.ofMillis(producerMaxBlockMs + producerRequestTimeoutMs));
     }
 
     /**
      * 트랜잭션용 Producer
+     * transactionalIdPrefix 뒤에 번호를 붙인 트랜잭션 ID로 Producer를 만들어 캐시하므로,
+     * 동시에 진행되는 트랜잭션마다 서로 다른 Producer가 사용됩니다.
+     * 동시에 사용되는 Producer 수(풀 크기)는 TransactionalProducerService에서 제한합니다.
      */
     @Bean
-    public ProducerFactory<String, String> transactionalProducerFactory() {
+    public ProducerFactory<String, String> transactionalProducerFactory(
+            @Value("${app.kafka.transactional.id-prefix:tx-producer-}") String transactionIdPrefix) {
         Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
 
         // 트랜잭션 필수 설정
-        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "tx-producer");
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         props.put(ProducerConfig.ACKS_CONFIG, "all");
 
-        return new DefaultKafkaProducerFactory<>(props);
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(props);
+        // 트랜잭션 ID = prefix + 순번 (tx-producer-0, tx-producer-1, ...)
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return instrument(factory, "transactional");
     }
 
     /**
@@ -69,16 +150,18 @@ public class KafkaConfig {
      * 트랜잭션용 KafkaTemplate
      */
     @Bean
-    public KafkaTemplate<String, String> transactionalKafkaTemplate() {
-        return new KafkaTemplate<>(transactionalProducerFactory());
+    public KafkaTemplate<String, String> transactionalKafkaTemplate(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, String> transactionalProducerFactory) {
+        return new KafkaTemplate<>(transactionalProducerFactory);
     }
 
     /**
      * Kafka 트랜잭션 매니저
      */
     @Bean
-    public KafkaTransactionManager<String, String> kafkaTransactionManager() {
-        return new KafkaTransactionManager<>(transactionalProducerFactory());
+    public KafkaTransactionManager<String, String> kafkaTransactionManager(
+            @Qualifier("transactionalProducerFactory") ProducerFactory<String, String> transactionalProducerFactory) {
+        return new KafkaTransactionManager<>(transactionalProducerFactory);
     }
     
     /**
@@ -87,29 +170,147 @@ public class KafkaConfig {
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "basic-group");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        return instrument(new DefaultKafkaConsumerFactory<>(props), "default");
+    }
+
+    /**
+     * 배치 리스너용 Consumer Factory 설정
+     * 한 번의 poll로 가져올 최대 레코드 수를 지정하여 배치 크기를 제어합니다.
+     */
+    @Bean
+    public ConsumerFactory<String, String> batchConsumerFactory(
+            @Value("${app.kafka.consumer.batch.max-poll-records:500}") int maxPollRecords) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "basic-group");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return instrument(new DefaultKafkaConsumerFactory<>(props), "batch");
     }
     
     /**
-     * 데드 레터 큐(DLQ)로 실패한 메시지를 전송하는 에러 핸들러
+     * Exactly-once 처리용 Consumer Factory 설정
+     * - 커밋된 트랜잭션 메시지만 읽음 (read_committed)
+     * - 오프셋은 Producer 트랜잭션 안에서 커밋되므로 자동 커밋 비활성화
+     * - max.poll.records(트랜잭션 크기)만큼 모일 때까지 최대 commit-interval-ms 동안 fetch를 대기시켜
+     *   한 트랜잭션에 많은 레코드를 묶음
+     */
+    @Bean
+    public ConsumerFactory<String, String> exactlyOnceConsumerFactory(
+            @Value("${app.kafka.exactly-once.transaction-size:500}") int transactionSize,
+            @Value("${app.kafka.exactly-once.commit-interval-ms:100}") int commitIntervalMs,
+            @Value("${app.kafka.exactly-once.fetch-min-bytes:65536}") int fetchMinBytes) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "basic-group");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, transactionSize);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, commitIntervalMs);
+        return instrument(new DefaultKafkaConsumerFactory<>(props), "exactly-once");
+    }
+
+    /**
+     * Producer 팩토리가 만드는 Producer의 클라이언트 메트릭을 Micrometer에 바인딩합니다.
+     * (kafka.producer.record.send.rate, kafka.producer.request.latency.avg 등, factory 태그로 팩토리 구분)
+     */
+    private <K, V> DefaultKafkaProducerFactory<K, V> instrument(DefaultKafkaProducerFactory<K, V> factory, String name) {
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry, List.of(Tag.of("factory", name))));
+        return factory;
+    }
+
+    /**
+     * Consumer 팩토리가 만드는 Consumer의 클라이언트 메트릭을 Micrometer에 바인딩합니다.
+     * (kafka.consumer.fetch.manager.fetch.latency.avg, kafka.consumer.fetch.manager.records.lag.max 등)
+     */
+    private <K, V> DefaultKafkaConsumerFactory<K, V> instrument(DefaultKafkaConsumerFactory<K, V> factory, String name) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry, List.of(Tag.of("factory", name))));
+        return factory;
+    }
+
+    /**
+     * 실패한 메시지를 재시도 토픽 또는 데드 레터 큐(DLQ)로 전송하는 에러 핸들러
+     *
+     * - 단계별 재시도 대상 토픽(user-data-input): 컨슈머 스레드를 멈추지 않고 즉시 다음 재시도 토픽으로 전송
+     *   (.retry-1s -> .retry-10s -> .retry-60s -> .DLQ)
+     * - 그 외 토픽: 1초 간격으로 최대 3번 재시도 후 DLQ로 전송
      */
     @Bean
     public CommonErrorHandler errorHandler(KafkaTemplate<String, String> kafkaTemplate) {
-        // 실패한 메시지를 DLQ로 전송하는 복구기
+        return deadLetterErrorHandler(kafkaTemplate);
+    }
+
+    /**
+     * 재시도 토픽 리스너 전용 에러 핸들러
+     * 수동 커밋 모드에서는 복구(다음 재시도 토픽 또는 DLQ로 전송)한 레코드의 오프셋이 자동으로 커밋되지 않으므로,
+     * 재시작이나 리밸런싱 후 같은 레코드를 다시 소비하여 다음 단계로 중복 전송하지 않도록 복구 직후 오프셋을 커밋합니다.
+     */
+    @Bean
+    public CommonErrorHandler retryErrorHandler(KafkaTemplate<String, String> kafkaTemplate) {
+        DefaultErrorHandler errorHandler = deadLetterErrorHandler(kafkaTemplate);
+        errorHandler.setCommitRecovered(true);
+        errorHandler.setAckAfterHandle(true);
+        return errorHandler;
+    }
+
+    /**
+     * Exactly-once 리스너 전용 에러 핸들러
+     * 리스너가 BatchListenerFailedException으로 실패한 레코드를 알려주면 그 이전 레코드는 같은 트랜잭션으로 커밋하고,
+     * 실패한 레코드는 제한된 횟수만큼 재시도한 뒤 트랜잭션 템플릿으로 transaction-topic.DLQ에 전송합니다.
+     * DLQ 전송과 오프셋 커밋이 한 트랜잭션으로 묶이므로 독성 메시지가 흔적 없이 건너뛰어지지 않습니다.
+     */
+    @Bean
+    public CommonErrorHandler exactlyOnceErrorHandler(
+            @Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, String> transactionalKafkaTemplate,
+            @Value("${app.kafka.exactly-once.retry.interval-ms:500}") long retryIntervalMs,
+            @Value("${app.kafka.exactly-once.retry.max-attempts:2}") long retryMaxAttempts) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(transactionalKafkaTemplate,
+                (record, exception) -> {
+                    String destination = RetryTopics.nextDestination(record.topic(), exception);
+                    log.warn("exactly-once 처리 실패 메시지를 {}로 전송: partition={}, offset={}",
+                            destination, record.partition(), record.offset());
+                    return new org.apache.kafka.common.TopicPartition(destination, record.partition());
+                });
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, new FixedBackOff(retryIntervalMs, retryMaxAttempts));
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
+        return errorHandler;
+    }
+
+    private DefaultErrorHandler deadLetterErrorHandler(KafkaTemplate<String, String> kafkaTemplate) {
+        // 실패한 메시지를 다음 재시도 토픽 또는 DLQ로 전송하는 복구기
         DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
                 (record, exception) -> {
-                    // 원본 토픽에 DLQ 접미사를 추가하여 DLQ 토픽 이름 생성
-                    String dlqTopic = record.topic() + DLQ_SUFFIX;
-                    log.info("메시지를 DLQ로 전송: {}", dlqTopic);
-                    return new org.apache.kafka.common.TopicPartition(dlqTopic, record.partition());
+                    String destination = RetryTopics.nextDestination(record.topic(), exception);
+                    log.info("메시지를 {}로 전송", destination);
+                    return new org.apache.kafka.common.TopicPartition(destination, record.partition());
                 });
-        
+
+        // 재시도 토픽으로 보내는 레코드에 처리 예정 시각 헤더 추가
+        recoverer.setHeadersFunction((record, exception) -> {
+            Headers headers = new RecordHeaders();
+            if (RetryTopics.nextDestination(record.topic(), exception).endsWith(RetryTopics.DLQ_SUFFIX)) {
+                return headers;
+            }
+            RetryTopics.nextTier(record.topic()).ifPresent(tier -> headers.add(RetryTopics.DUE_AT_HEADER,
+                    String.valueOf(System.currentTimeMillis() + tier.delayMs()).getBytes(StandardCharsets.UTF_8)));
+            return headers;
+        });
+
         // 1초 간격으로 최대 3번 재시도 후 DLQ로 전송
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3L));
+
+        // 단계별 재시도 대상 토픽은 제자리 재시도 없이 바로 재시도 토픽으로 넘겨 파티션이 멈추지 않도록 함
+        errorHandler.setBackOffFunction((record, exception) ->
+                RetryTopics.isTiered(record.topic()) ? new FixedBackOff(0L, 0L) : null);
         
         // 특정 예외 유형에 대한 처리 설정 (필요에 따라 추가)
         errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
@@ -123,11 +324,88 @@ public class KafkaConfig {
      */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
-            CommonErrorHandler errorHandler) {
+            @Qualifier("errorHandler") CommonErrorHandler errorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = 
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setCommonErrorHandler(errorHandler);
         return factory;
     }
+
+    /**
+     * 배치 Kafka 리스너 컨테이너 팩토리 설정
+     * 리스너는 List&lt;ConsumerRecord&gt; 단위로 메시지를 전달받으며,
+     * 컨테이너 동시성은 구독 토픽의 파티션 수에 맞춰 자동으로 설정됩니다.
+     *
+     * 리스너가 BatchListenerFailedException으로 실패한 레코드를 알려주면
+     * DefaultErrorHandler가 그 이전 레코드의 오프셋을 커밋하고 실패한 레코드만 재시도 후 DLQ로 보냅니다.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+            @Qualifier("batchConsumerFactory") ConsumerFactory<String, String> batchConsumerFactory,
+            @Qualifier("errorHandler") CommonErrorHandler errorHandler,
+            KafkaAdmin kafkaAdmin,
+            @Value("${app.kafka.consumer.max-concurrency:8}") int maxConcurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setContainerCustomizer(new PartitionConcurrencyCustomizer(kafkaAdmin, maxConcurrency));
+        return factory;
+    }
+
+    /**
+     * Exactly-once consume-transform-produce 리스너 컨테이너 팩토리 설정
+     * 컨테이너가 poll한 배치마다 Kafka 트랜잭션을 시작하고, 리스너가 트랜잭션 템플릿으로 보낸 메시지와
+     * 소비한 오프셋(sendOffsetsToTransaction)을 한 트랜잭션으로 함께 커밋합니다.
+     * 처리에 실패한 레코드는 전용 에러 핸들러가 재시도 후 같은 트랜잭션으로 DLQ에 전송합니다.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> exactlyOnceKafkaListenerContainerFactory(
+            @Qualifier("exactlyOnceConsumerFactory") ConsumerFactory<String, String> exactlyOnceConsumerFactory,
+            KafkaTransactionManager<String, String> kafkaTransactionManager,
+            @Qualifier("exactlyOnceErrorHandler") CommonErrorHandler exactlyOnceErrorHandler,
+            KafkaAdmin kafkaAdmin,
+            @Value("${app.kafka.consumer.max-concurrency:8}") int maxConcurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(exactlyOnceConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setKafkaAwareTransactionManager(kafkaTransactionManager);
+        factory.setCommonErrorHandler(exactlyOnceErrorHandler);
+        factory.setContainerCustomizer(new PartitionConcurrencyCustomizer(kafkaAdmin, maxConcurrency));
+        return factory;
+    }
+
+    /**
+     * 재시도 토픽 리스너 컨테이너 팩토리 설정
+     * 처리 시점이 되지 않은 레코드는 nack으로 되돌려 해당 컨테이너만 잠시 멈추므로 수동 커밋 모드를 사용합니다.
+     * 에러 핸들러의 복구 레코드 커밋(commitRecovered)은 MANUAL_IMMEDIATE에서만 동작하므로 즉시 커밋 모드를 사용합니다.
+     * (재시도 토픽은 실패한 레코드만 담아 유입량이 적으므로 레코드 단위 커밋 비용은 크지 않음)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> retryKafkaListenerContainerFactory(
+            @Qualifier("retryErrorHandler") CommonErrorHandler retryErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setCommonErrorHandler(retryErrorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        return factory;
+    }
+
+    /**
+     * 니어 캐시 갱신 리스너 컨테이너 팩토리 설정
+     * 인스턴스마다 고유 그룹 ID로 최신 갱신만 받으면 되므로 오프셋을 커밋하지 않습니다.
+     * (수동 커밋 모드에서 리스너가 ack하지 않으므로 재시작할 때마다 커밋된 오프셋을 가진 그룹이 남지 않음)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> nearCacheKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
 }
\ No newline at end of file
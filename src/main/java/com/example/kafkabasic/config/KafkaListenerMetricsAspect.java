@@ -0,0 +1,49 @@
+package com.example.kafkabasic.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+/**
+ * 모든 @KafkaListener 메서드의 처리 시간을 측정하는 Aspect
+ *
+ * 리스너 메서드별(클래스명.메서드명)로 kafka.listener.duration 타이머에 기록하며,
+ * 배치 리스너는 배치 하나를 처리하는 시간, 단건 리스너는 레코드 하나를 처리하는 시간입니다.
+ * 예외로 끝난 호출은 exception 태그에 예외 클래스 이름을 남겨 에러 핸들러로 넘어간 처리와 구분합니다.
+ */
+@Aspect
+@Component
+public class KafkaListenerMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaListenerMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(org.springframework.kafka.annotation.KafkaListener)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String listener = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("kafka.listener.duration")
+                    .description("@KafkaListener 메서드 처리 시간")
+                    .tag("listener", listener)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
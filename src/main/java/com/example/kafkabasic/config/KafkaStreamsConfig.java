@@ -1,36 +1,164 @@
 package com.example.kafkabasic.config;
 
+import com.example.kafkabasic.streams.BoundedMemoryRocksDBConfig;
+import com.example.kafkabasic.streams.StateRestoreTracker;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.annotation.EnableKafkaStreams;
-import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Kafka Streams 설정
+ *
+ * 파이프라인(토폴로지)마다 별도의 KafkaStreams 인스턴스를 생성합니다.
+ * 각 파이프라인은 자신의 application.id, 스트림 스레드 수, 처리 보장, 상태 디렉토리를 가지므로
+ * 한 파이프라인의 부하나 장애가 다른 파이프라인에 영향을 주지 않습니다.
+ *
+ * 파이프라인별 설정은 app.kafka.streams.pipelines.{이름} 아래에 정의합니다.
+ */
 @Configuration
-@EnableKafkaStreams
 public class KafkaStreamsConfig {
 
-    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
-    public KafkaStreamsConfiguration kStreamsConfig() {
+    // 파이프라인 이름
+    public static final String WORD_COUNT = "word-count";
+    public static final String DATA_TRANSFORMATION = "data-transformation";
+    public static final String NOTIFICATION = "notification";
+    public static final String TRANSACTION_FILTER = "transaction-filter";
+    public static final String TRENDING_WORDS = "trending-words";
+
+    // 파이프라인별 StreamsBuilder 빈 이름 (토폴로지 클래스에서 @Qualifier로 주입)
+    public static final String WORD_COUNT_BUILDER = "wordCountStreamsBuilder";
+    public static final String DATA_TRANSFORMATION_BUILDER = "dataTransformationStreamsBuilder";
+    public static final String NOTIFICATION_BUILDER = "notificationStreamsBuilder";
+    public static final String TRANSACTION_FILTER_BUILDER = "transactionFilterStreamsBuilder";
+    public static final String TRENDING_WORDS_BUILDER = "trendingWordsStreamsBuilder";
+
+    private static final String PIPELINE_PROPERTY_PREFIX = "app.kafka.streams.pipelines.";
+
+    private final Environment environment;
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final MeterRegistry meterRegistry;
+    private final StateRestoreTracker stateRestoreTracker;
+
+    public KafkaStreamsConfig(Environment environment, StreamsPipelineRegistry pipelineRegistry,
+                              MeterRegistry meterRegistry, StateRestoreTracker stateRestoreTracker) {
+        this.environment = environment;
+        this.pipelineRegistry = pipelineRegistry;
+        this.meterRegistry = meterRegistry;
+        this.stateRestoreTracker = stateRestoreTracker;
+    }
+
+    @Bean(name = WORD_COUNT_BUILDER)
+    public StreamsBuilderFactoryBean wordCountStreamsBuilder() {
+        return pipeline(WORD_COUNT);
+    }
+
+    @Bean(name = DATA_TRANSFORMATION_BUILDER)
+    public StreamsBuilderFactoryBean dataTransformationStreamsBuilder() {
+        return pipeline(DATA_TRANSFORMATION);
+    }
+
+    @Bean(name = NOTIFICATION_BUILDER)
+    public StreamsBuilderFactoryBean notificationStreamsBuilder() {
+        return pipeline(NOTIFICATION);
+    }
+
+    @Bean(name = TRANSACTION_FILTER_BUILDER)
+    public StreamsBuilderFactoryBean transactionFilterStreamsBuilder() {
+        return pipeline(TRANSACTION_FILTER);
+    }
+
+    @Bean(name = TRENDING_WORDS_BUILDER)
+    public StreamsBuilderFactoryBean trendingWordsStreamsBuilder() {
+        return pipeline(TRENDING_WORDS);
+    }
+
+    /**
+     * 파이프라인 하나에 대한 StreamsBuilderFactoryBean을 생성하고 레지스트리에 등록합니다.
+     */
+    private StreamsBuilderFactoryBean pipeline(String name) {
+        StreamsBuilderFactoryBean factoryBean = new StreamsBuilderFactoryBean(streamsConfiguration(name));
+        factoryBean.setAutoStartup(pipelineProperty(name, "auto-startup", Boolean.class, true));
+        // Kafka Streams 내장 메트릭(스레드, 태스크, 상태 저장소, RocksDB memtable 등)을 Micrometer로 노출
+        factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry, List.of(Tag.of("pipeline", name))));
+        // 상태 저장소 복구 진행 상황 추적 (/actuator/streamsrestore, stateRestore 헬스의 RESTORING 상태)
+        factoryBean.setStateRestoreListener(stateRestoreTracker.listener(name));
+        pipelineRegistry.register(name, factoryBean);
+        return factoryBean;
+    }
+
+    private KafkaStreamsConfiguration streamsConfiguration(String name) {
         Map<String, Object> props = new HashMap<>();
         
-        // Kafka Streams 기본 설정
-        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "kafka-streams-app");
-        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        // Kafka Streams 기본 설정 (application.id는 파이프라인마다 다름)
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG,
+                environment.getProperty("app.kafka.streams.application-id-prefix", "kafka-streams-app") + "-" + name);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG,
+                environment.getProperty("spring.kafka.bootstrap-servers", "localhost:9092"));
+        
+        // 인터랙티브 쿼리용 이 인스턴스의 주소 (다른 인스턴스가 소유한 키 조회를 이 주소로 전달받음)
+        props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer());
         props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass().getName());
         props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass().getName());
         
-        // 상태 저장소 설정 (로컬 상태 저장)
-        props.put(StreamsConfig.STATE_DIR_CONFIG, "/tmp/kafka-streams");
+        // 상태 저장소 설정 (파이프라인별 로컬 상태 디렉토리: {state-dir}/{파이프라인}/{application.id}/{태스크})
+        // 재시작 후에도 유지되는 디렉토리여야 변경 로그 전체를 다시 재생하지 않고 체크포인트 이후만 복구함
+        props.put(StreamsConfig.STATE_DIR_CONFIG,
+                environment.getProperty("app.kafka.streams.state-dir", "data/kafka-streams") + "/" + name);
+        
+        // 스탠바이 복제본: 다른 인스턴스에 상태 저장소 사본을 유지하여 장애 시 복구 없이 바로 인계
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG,
+                pipelineProperty(name, "standby-replicas", Integer.class, 0));
+        // 워밍업 복제본: 태스크를 옮기기 전에 새 인스턴스에서 상태를 미리 따라잡게 함
+        // (acceptable-recovery-lag 이내로 따라잡은 뒤에 활성 태스크를 이동)
+        props.put(StreamsConfig.MAX_WARMUP_REPLICAS_CONFIG,
+                environment.getProperty("app.kafka.streams.restore.max-warmup-replicas", Integer.class, 2));
+        props.put(StreamsConfig.ACCEPTABLE_RECOVERY_LAG_CONFIG,
+                environment.getProperty("app.kafka.streams.restore.acceptable-recovery-lag", Long.class, 10000L));
+        props.put(StreamsConfig.PROBING_REBALANCE_INTERVAL_MS_CONFIG,
+                environment.getProperty("app.kafka.streams.restore.probing-rebalance-interval-ms", Long.class, 600000L));
         
-        // 처리 보장 설정 (exactly-once)
-        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.EXACTLY_ONCE_V2);
+        // RocksDB 메모리 설정 (모든 파이프라인의 상태 저장소가 블록 캐시와 memtable 예산을 공유)
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedMemoryRocksDBConfig.class);
+        props.put(BoundedMemoryRocksDBConfig.TOTAL_OFF_HEAP_BYTES_CONFIG,
+                environment.getProperty("app.kafka.streams.rocksdb.total-off-heap-bytes", Long.class, 268435456L));
+        props.put(BoundedMemoryRocksDBConfig.MEMTABLE_RATIO_CONFIG,
+                environment.getProperty("app.kafka.streams.rocksdb.memtable-ratio", Double.class, 0.25));
+        props.put(BoundedMemoryRocksDBConfig.STATISTICS_ENABLED_CONFIG,
+                environment.getProperty("app.kafka.streams.rocksdb.statistics-enabled", Boolean.class, true));
+        
+        // 스트림 스레드 수
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG,
+                pipelineProperty(name, "num-stream-threads", Integer.class, 1));
+        
+        // 처리 보장 설정 (기본 exactly-once)
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG,
+                pipelineProperty(name, "processing-guarantee", String.class, StreamsConfig.EXACTLY_ONCE_V2));
         
         return new KafkaStreamsConfiguration(props);
     }
-}
\ No newline at end of file
+
+    /**
+     * 인터랙티브 쿼리 라우팅에 사용할 host:port
+     * app.kafka.streams.application-server가 없으면 localhost와 server.port를 사용합니다.
+     */
+    private String applicationServer() {
+        return environment.getProperty("app.kafka.streams.application-server",
+                "localhost:" + environment.getProperty("server.port", "8080"));
+    }
+
+    private <T> T pipelineProperty(String name, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(PIPELINE_PROPERTY_PREFIX + name + "." + key, type, defaultValue);
+    }
+}
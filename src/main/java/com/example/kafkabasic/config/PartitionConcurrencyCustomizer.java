@@ -0,0 +1,54 @@
+package com.example.kafkabasic.config;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.Map;
+
+/**
+ * 리스너 컨테이너의 동시성(concurrency)을 구독 토픽의 파티션 수에 맞춰 자동 설정하는 커스터마이저
+ * 파티션 수보다 많은 컨슈머 스레드는 할당받을 파티션이 없어 유휴 상태가 되므로
+ * 구독 토픽 중 가장 많은 파티션 수를 기준으로 하되, 설정된 최대값을 넘지 않도록 제한합니다.
+ */
+public class PartitionConcurrencyCustomizer
+        implements ContainerCustomizer<String, String, ConcurrentMessageListenerContainer<String, String>> {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionConcurrencyCustomizer.class);
+
+    private final KafkaAdmin kafkaAdmin;
+    private final int maxConcurrency;
+
+    public PartitionConcurrencyCustomizer(KafkaAdmin kafkaAdmin, int maxConcurrency) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public void configure(ConcurrentMessageListenerContainer<String, String> container) {
+        String[] topics = container.getContainerProperties().getTopics();
+        if (topics == null || topics.length == 0) {
+            // 패턴 구독이나 수동 파티션 할당은 파티션 수를 미리 알 수 없으므로 기본 동시성 유지
+            return;
+        }
+
+        try {
+            Map<String, TopicDescription> descriptions = kafkaAdmin.describeTopics(topics);
+            int partitions = descriptions.values().stream()
+                    .mapToInt(description -> description.partitions().size())
+                    .max()
+                    .orElse(1);
+
+            int concurrency = Math.min(Math.max(partitions, 1), maxConcurrency);
+            container.setConcurrency(concurrency);
+            log.info("리스너 '{}' 동시성 설정: {} (파티션 수: {}, 최대: {})",
+                    container.getListenerId(), concurrency, partitions, maxConcurrency);
+        } catch (Exception e) {
+            // 토픽이 아직 없거나 브로커 조회에 실패한 경우 기본 동시성으로 시작
+            log.warn("토픽 {} 파티션 정보 조회 실패, 기본 동시성 사용: {}", String.join(",", topics), e.getMessage());
+        }
+    }
+}
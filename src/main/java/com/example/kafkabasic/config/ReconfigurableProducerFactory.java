@@ -0,0 +1,181 @@
+package com.example.kafkabasic.config;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 실행 중에 설정을 바꿀 수 있는 비트랜잭션 ProducerFactory
+ *
+ * 설정을 바꿀 때 사용 중인 Producer를 reset()으로 닫지 않고, 새 설정으로 만든 팩토리(세대)로 교체합니다.
+ * 교체 이후의 전송은 새 Producer를 사용하고, 이전 Producer는 이미 빌려 간 전송이 모두 끝난 뒤에 닫히므로
+ * (close 시 버퍼에 남은 배치는 flush) 전송 도중 "producer closed" 오류가 발생하지 않습니다.
+ * KafkaTemplate은 전송마다 createProducer()로 Producer를 빌리고 close()로 반납하므로, 반납 시점을 세어 drain을 판단합니다.
+ */
+public class ReconfigurableProducerFactory<K, V> implements ProducerFactory<K, V>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconfigurableProducerFactory.class);
+
+    private final Function<Map<String, Object>, DefaultKafkaProducerFactory<K, V>> factoryCreator;
+    private final Duration drainTimeout;
+
+    private volatile Generation<K, V> current;
+
+    /**
+     * @param configs 초기 Producer 설정
+     * @param factoryCreator 설정으로 실제 팩토리를 만드는 함수 (메트릭 리스너 등록 포함)
+     * @param drainTimeout 이전 Producer를 닫기 전에 빌려 간 전송의 반납을 기다리는 최대 시간
+     */
+    public ReconfigurableProducerFactory(Map<String, Object> configs,
+                                         Function<Map<String, Object>, DefaultKafkaProducerFactory<K, V>> factoryCreator,
+                                         Duration drainTimeout) {
+        this.factoryCreator = factoryCreator;
+        this.drainTimeout = drainTimeout;
+        this.current = new Generation<>(factoryCreator.apply(new HashMap<>(configs)));
+    }
+
+    /**
+     * 설정 일부를 바꾼 새 Producer로 교체하고, 이전 Producer는 진행 중인 전송이 끝난 뒤 닫습니다.
+     * 이전 Producer를 닫을 때까지 호출한 스레드가 대기하므로 요청 스레드가 아닌 백그라운드 작업에서 호출해야 합니다.
+     */
+    public void reconfigure(Map<String, Object> updates) {
+        Generation<K, V> retired;
+        synchronized (this) {
+            Map<String, Object> configs = new HashMap<>(current.factory.getConfigurationProperties());
+            configs.putAll(updates);
+            retired = current;
+            current = new Generation<>(factoryCreator.apply(configs));
+        }
+        retired.retire();
+        if (!retired.awaitDrained(drainTimeout)) {
+            log.warn("이전 Producer 반납 대기 시간 초과, 남은 전송={}건 상태로 닫음", retired.leases());
+        }
+        retired.factory.destroy();
+    }
+
+    @Override
+    public Producer<K, V> createProducer() {
+        while (true) {
+            Generation<K, V> generation = current;
+            if (generation.acquire()) {
+                return generation.lease();
+            }
+            // 교체 직후 이전 세대를 잡은 경우 새 세대로 다시 시도
+        }
+    }
+
+    @Override
+    public Producer<K, V> createNonTransactionalProducer() {
+        return createProducer();
+    }
+
+    @Override
+    public Map<String, Object> getConfigurationProperties() {
+        return Collections.unmodifiableMap(current.factory.getConfigurationProperties());
+    }
+
+    @Override
+    public boolean transactionCapable() {
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        current.factory.destroy();
+    }
+
+    /**
+     * 한 가지 설정으로 만든 팩토리와 그 Producer를 빌려 간 전송 수
+     */
+    private static final class Generation<K, V> {
+
+        private final DefaultKafkaProducerFactory<K, V> factory;
+        private int leases;
+        private boolean retired;
+
+        private Generation(DefaultKafkaProducerFactory<K, V> factory) {
+            this.factory = factory;
+        }
+
+        private synchronized boolean acquire() {
+            if (retired) {
+                return false;
+            }
+            leases++;
+            return true;
+        }
+
+        private synchronized void release() {
+            leases--;
+            if (leases == 0) {
+                notifyAll();
+            }
+        }
+
+        private synchronized void retire() {
+            retired = true;
+        }
+
+        private synchronized int leases() {
+            return leases;
+        }
+
+        private synchronized boolean awaitDrained(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (leases > 0) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                try {
+                    wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 공유 Producer를 감싸 close() 호출 시 한 번만 반납 처리합니다.
+         * (공유 Producer의 close()는 실제로 닫지 않으므로 그대로 위임)
+         */
+        @SuppressWarnings("unchecked")
+        private Producer<K, V> lease() {
+            Producer<K, V> producer;
+            try {
+                producer = factory.createProducer();
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return (Producer<K, V>) Proxy.newProxyInstance(Producer.class.getClassLoader(), new Class<?>[]{Producer.class},
+                    (proxy, method, args) -> {
+                        try {
+                            return method.invoke(producer, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                                release();
+                            }
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.kafkabasic.config;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 비차단(non-blocking) 단계별 재시도 토픽 규칙
+ *
+ * 실패한 레코드는 컨슈머 스레드를 멈추고 재시도하는 대신 지연 시간이 다른 재시도 토픽으로 옮겨집니다.
+ * user-data-input -> .retry-1s -> .retry-10s -> .retry-60s -> .DLQ
+ *
+ * 각 재시도 토픽은 같은 지연 시간을 가진 레코드만 담기 때문에 파티션 앞쪽 레코드가 항상 가장 먼저 처리 시점에 도달합니다.
+ * 따라서 재시도 리스너는 처리 시점이 될 때까지 해당 파티션만 잠시 멈추면 되고, 원본 토픽은 계속 소비됩니다.
+ */
+public final class RetryTopics {
+
+    public static final String DLQ_SUFFIX = ".DLQ";
+
+    // 재시도 처리 예정 시각(epoch millis)을 담는 헤더
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+
+    public static final String USER_DATA_INPUT = "user-data-input";
+    public static final String USER_DATA_RETRY_1S = USER_DATA_INPUT + ".retry-1s";
+    public static final String USER_DATA_RETRY_10S = USER_DATA_INPUT + ".retry-10s";
+    public static final String USER_DATA_RETRY_60S = USER_DATA_INPUT + ".retry-60s";
+
+    // 단계별 재시도를 적용하는 원본 토픽 목록
+    public static final Set<String> TIERED_SOURCE_TOPICS = Set.of(USER_DATA_INPUT);
+
+    /**
+     * 재시도 단계 (토픽 접미사와 지연 시간)
+     */
+    public enum Tier {
+        RETRY_1S(".retry-1s", 1_000L),
+        RETRY_10S(".retry-10s", 10_000L),
+        RETRY_60S(".retry-60s", 60_000L);
+
+        private final String suffix;
+        private final long delayMs;
+
+        Tier(String suffix, long delayMs) {
+            this.suffix = suffix;
+            this.delayMs = delayMs;
+        }
+
+        public String suffix() {
+            return suffix;
+        }
+
+        public long delayMs() {
+            return delayMs;
+        }
+
+        public String topicFor(String sourceTopic) {
+            return sourceTopic + suffix;
+        }
+    }
+
+    private RetryTopics() {
+    }
+
+    /**
+     * 단계별 재시도 대상 토픽(원본 또는 재시도 토픽)인지 확인합니다.
+     */
+    public static boolean isTiered(String topic) {
+        return TIERED_SOURCE_TOPICS.contains(sourceTopic(topic));
+    }
+
+    /**
+     * 재시도 토픽 이름에서 원본 토픽 이름을 구합니다.
+     */
+    public static String sourceTopic(String topic) {
+        for (Tier tier : Tier.values()) {
+            if (topic.endsWith(tier.suffix())) {
+                return topic.substring(0, topic.length() - tier.suffix().length());
+            }
+        }
+        return topic;
+    }
+
+    /**
+     * 현재 토픽에서 실패한 레코드가 이동할 다음 재시도 단계를 구합니다.
+     * 마지막 단계이거나 단계별 재시도 대상이 아니면 비어 있습니다.
+     */
+    public static Optional<Tier> nextTier(String topic) {
+        if (!isTiered(topic)) {
+            return Optional.empty();
+        }
+        Tier[] tiers = Tier.values();
+        if (!topic.equals(sourceTopic(topic))) {
+            for (int i = 0; i < tiers.length; i++) {
+                if (topic.endsWith(tiers[i].suffix())) {
+                    return i + 1 < tiers.length ? Optional.of(tiers[i + 1]) : Optional.empty();
+                }
+            }
+        }
+        return Optional.of(tiers[0]);
+    }
+
+    /**
+     * 실패한 레코드의 목적지 토픽을 결정합니다.
+     * 재시도할 수 없는 예외(IllegalArgumentException)이거나 마지막 단계까지 실패하면 원본 토픽의 DLQ로 보냅니다.
+     */
+    public static String nextDestination(String topic, Throwable exception) {
+        String dlqTopic = sourceTopic(topic) + DLQ_SUFFIX;
+        if (!isRetryable(exception)) {
+            return dlqTopic;
+        }
+        return nextTier(topic).map(tier -> tier.topicFor(sourceTopic(topic))).orElse(dlqTopic);
+    }
+
+    /**
+     * 재시도 토픽 레코드의 처리 예정 시각을 구합니다.
+     * 헤더가 없으면 레코드 타임스탬프에 해당 단계의 지연 시간을 더해 계산합니다.
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        if (header != null) {
+            try {
+                return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+            } catch (NumberFormatException ignored) {
+                // 잘못된 헤더는 타임스탬프 기준으로 계산
+            }
+        }
+        for (Tier tier : Tier.values()) {
+            if (record.topic().endsWith(tier.suffix())) {
+                return record.timestamp() + tier.delayMs();
+            }
+        }
+        return record.timestamp();
+    }
+
+    private static boolean isRetryable(Throwable exception) {
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            cause = cause.getCause();
+        }
+        return true;
+    }
+}
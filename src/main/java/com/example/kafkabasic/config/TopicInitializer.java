@@ -1,5 +1,6 @@
 package com.example.kafkabasic.config;
 
+import com.example.kafkabasic.service.ClusterMetadataCache;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.slf4j.Logger;
@@ -8,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
-import org.springframework.kafka.core.KafkaAdmin;
 
 import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
@@ -30,7 +30,7 @@ public class TopicInitializer {
     private static final short DEFAULT_REPLICATION_FACTOR = 1;
     
     // 데드 레터 큐(DLQ) 접미사
-    private static final String DLQ_SUFFIX = ".DLQ";
+    private static final String DLQ_SUFFIX = RetryTopics.DLQ_SUFFIX;
 
     // 기본 토픽 목록
     private static final String[] REQUIRED_TOPICS = {
@@ -38,23 +38,28 @@ public class TopicInitializer {
             "user-data-input",
             "events-input",
             "transaction-input",
-            "basic-topic"  // ConsumerService에서 사용하는 토픽 추가
+            "basic-topic",  // ConsumerService에서 사용하는 토픽 추가
+            "transaction-topic",  // exactly-once 파이프라인 입력 토픽
+            "transaction-processed"  // exactly-once 파이프라인 출력 토픽
     };
 
-    private final KafkaAdmin kafkaAdmin;
+    private final AdminClient adminClient;
+    private final ClusterMetadataCache clusterMetadataCache;
 
     @Autowired
-    public TopicInitializer(KafkaAdmin kafkaAdmin) {
-        this.kafkaAdmin = kafkaAdmin;
+    public TopicInitializer(AdminClient adminClient, ClusterMetadataCache clusterMetadataCache) {
+        this.adminClient = adminClient;
+        this.clusterMetadataCache = clusterMetadataCache;
     }
 
     /**
      * 애플리케이션 시작 시 필요한 토픽들을 생성합니다.
-     * 각 토픽에 대해 데드 레터 큐(DLQ) 토픽도 함께 생성합니다.
+     * 각 토픽에 대해 데드 레터 큐(DLQ) 토픽도 함께 생성하고,
+     * 단계별 재시도 대상 토픽에는 재시도 토픽(.retry-1s, .retry-10s, .retry-60s)도 생성합니다.
      */
     @PostConstruct
     public void initializeTopics() {
-        try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+        try {
             // 현재 존재하는 토픽 목록 조회
             Set<String> existingTopics = adminClient.listTopics().names().get();
             logger.info("현재 존재하는 토픽: {}", existingTopics);
@@ -89,12 +94,32 @@ public class TopicInitializer {
                 } else {
                     logger.info("DLQ 토픽 '{}' 이미 존재함", dlqTopicName);
                 }
+
+                // 단계별 재시도 대상 토픽에 대한 재시도 토픽 생성
+                if (RetryTopics.TIERED_SOURCE_TOPICS.contains(topicName)) {
+                    for (RetryTopics.Tier tier : RetryTopics.Tier.values()) {
+                        String retryTopicName = tier.topicFor(topicName);
+                        if (!existingTopics.contains(retryTopicName)) {
+                            logger.info("재시도 토픽 '{}' 생성 예정", retryTopicName);
+                            topicsToCreate.add(
+                                    TopicBuilder.name(retryTopicName)
+                                            .partitions(DEFAULT_PARTITIONS)
+                                            .replicas(DEFAULT_REPLICATION_FACTOR)
+                                            .build()
+                            );
+                        } else {
+                            logger.info("재시도 토픽 '{}' 이미 존재함", retryTopicName);
+                        }
+                    }
+                }
             }
 
             // 필요한 토픽 생성
             if (!topicsToCreate.isEmpty()) {
                 adminClient.createTopics(topicsToCreate).all().get();
                 logger.info("토픽 생성 완료: {}", topicsToCreate.stream().map(NewTopic::name).toList());
+                // 생성한 토픽이 다음 주기적 갱신 전에도 조회되도록 메타데이터 캐시를 바로 갱신
+                clusterMetadataCache.refresh();
             } else {
                 logger.info("생성할 토픽이 없습니다. 모든 필요한 토픽이 이미 존재합니다.");
             }
@@ -1,19 +1,19 @@
 package com.example.kafkabasic.controller;
 
-import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.ListTopicsResult;
-import org.apache.kafka.streams.KafkaStreams;
+import com.example.kafkabasic.service.ClusterMetadataCache;
+import com.example.kafkabasic.service.ConsumerLagMonitor;
+import com.example.kafkabasic.service.TopicOffsetService;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.config.StreamsBuilderFactoryBean;
-import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 카프카 대시보드 컨트롤러
@@ -22,39 +22,56 @@ import java.util.stream.Collectors;
 @Controller
 public class DashboardController {
 
-    private final KafkaAdmin kafkaAdmin;
-    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final ClusterMetadataCache clusterMetadataCache;
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final TopicOffsetService topicOffsetService;
+    private final ConsumerLagMonitor consumerLagMonitor;
 
     @Autowired
-    public DashboardController(KafkaAdmin kafkaAdmin, StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
-        this.kafkaAdmin = kafkaAdmin;
-        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+    public DashboardController(ClusterMetadataCache clusterMetadataCache,
+                               StreamsPipelineRegistry pipelineRegistry,
+                               TopicOffsetService topicOffsetService,
+                               ConsumerLagMonitor consumerLagMonitor) {
+        this.clusterMetadataCache = clusterMetadataCache;
+        this.pipelineRegistry = pipelineRegistry;
+        this.topicOffsetService = topicOffsetService;
+        this.consumerLagMonitor = consumerLagMonitor;
     }
 
     /**
      * 카프카 대시보드 메인 페이지
-     * 토픽 목록과 Kafka Streams 상태를 보여줍니다.
+     * 토픽 목록, 토픽별 메시지 수, 컨슈머 그룹 지연, Kafka Streams 상태를 보여줍니다.
      */
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         try {
-            // 토픽 목록 조회
-            AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
-            ListTopicsResult topics = adminClient.listTopics();
-            Set<String> topicNames = topics.names().get();
-            
-            // 내부 토픽 필터링 (언더스코어로 시작하는 토픽은 Kafka 내부 토픽)
-            List<String> userTopics = topicNames.stream()
-                    .filter(name -> !name.startsWith("_"))
-                    .sorted()
-                    .collect(Collectors.toList());
+            // 토픽 목록 조회 (백그라운드에서 갱신되는 메타데이터 스냅샷, 내부 토픽 제외)
+            List<String> userTopics = clusterMetadataCache.userTopics();
+            if (clusterMetadataCache.snapshot() == null) {
+                model.addAttribute("error", "클러스터 메타데이터를 아직 조회하지 못했습니다: "
+                        + Objects.requireNonNullElse(clusterMetadataCache.lastError(), "갱신 대기 중"));
+            }
             
             model.addAttribute("topics", userTopics);
             
-            // Kafka Streams 상태 조회
-            KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
-            String streamsStatus = kafkaStreams != null ? kafkaStreams.state().name() : "NOT_INITIALIZED";
-            model.addAttribute("streamsStatus", streamsStatus);
+            // 토픽별 메시지 수 (전체 토픽의 시작/끝 오프셋을 각각 한 번의 요청으로 조회)
+            Map<String, Long> messageCounts = new LinkedHashMap<>();
+            if (!userTopics.isEmpty()) {
+                topicOffsetService.offsets(userTopics)
+                        .forEach((topic, offsets) -> messageCounts.put(topic, offsets.totalMessages()));
+            }
+            model.addAttribute("messageCounts", messageCounts);
+            
+            // Kafka Streams 상태 조회 (전체 상태 + 파이프라인별 상태)
+            model.addAttribute("streamsStatus", pipelineRegistry.overallState());
+            Map<String, String> pipelineStatuses = new LinkedHashMap<>();
+            for (String name : pipelineRegistry.names()) {
+                pipelineStatuses.put(name, pipelineRegistry.state(name));
+            }
+            model.addAttribute("pipelineStatuses", pipelineStatuses);
+            
+            // 컨슈머 그룹 지연 (백그라운드 수집기의 마지막 수집 결과)
+            model.addAttribute("consumerLags", List.copyOf(consumerLagMonitor.snapshot().values()));
             
             // 예제 토픽 그룹화
             List<String> wordCountTopics = new ArrayList<>();
@@ -0,0 +1,84 @@
+package com.example.kafkabasic.controller;
+
+import com.example.kafkabasic.service.TrendingWordsQueryService;
+import com.example.kafkabasic.service.WordCountQueryService;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인스턴스 간 상태 저장소 조회를 위한 내부 REST 컨트롤러
+ * 다른 인스턴스의 WordCountQueryService가 키를 소유한 이 인스턴스로 조회를 전달할 때 사용하며,
+ * 이 인스턴스의 로컬 저장소만 조회하고 다시 라우팅하지 않습니다.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/streams")
+public class InternalStreamsQueryController {
+
+    private final WordCountQueryService wordCountQueryService;
+    private final TrendingWordsQueryService trendingWordsQueryService;
+
+    public InternalStreamsQueryController(WordCountQueryService wordCountQueryService,
+                                          TrendingWordsQueryService trendingWordsQueryService) {
+        this.wordCountQueryService = wordCountQueryService;
+        this.trendingWordsQueryService = trendingWordsQueryService;
+    }
+
+    /**
+     * 로컬 counts 저장소에서 여러 단어의 출현 횟수 조회
+     * 요청 본문은 단어별 파티션이며, 이 인스턴스에 없는 파티션의 단어가 있으면 503으로 응답합니다.
+     */
+    @PostMapping("/word-count/counts")
+    public ResponseEntity<Map<String, Long>> getLocalCounts(
+            @RequestBody Map<String, Integer> words,
+            @RequestParam(defaultValue = "false") boolean stale) {
+        return ResponseEntity.ok(wordCountQueryService.getLocalCounts(words, stale));
+    }
+
+    /**
+     * 로컬 태스크들의 상위 단어 k개 조회
+     */
+    @GetMapping("/word-count/top")
+    public ResponseEntity<List<Map<String, Object>>> getLocalTopWords(@RequestParam(defaultValue = "10") int k) {
+        List<Map<String, Object>> words = new ArrayList<>(k);
+        for (KeyValue<String, Long> entry : wordCountQueryService.getLocalTopWords(k)) {
+            Map<String, Object> word = new LinkedHashMap<>();
+            word.put("word", entry.key);
+            word.put("count", entry.value);
+            words.add(word);
+        }
+        return ResponseEntity.ok(words);
+    }
+
+    /**
+     * 로컬 윈도우 저장소에서 단어의 윈도우별 출현 횟수 조회
+     */
+    @GetMapping("/trending-words/{word}/history")
+    public ResponseEntity<List<TrendingWordsQueryService.WindowCount>> getLocalHistory(
+            @PathVariable String word,
+            @RequestParam int partition,
+            @RequestParam String window,
+            @RequestParam Instant from,
+            @RequestParam Instant to) {
+        return ResponseEntity.ok(trendingWordsQueryService.getLocalHistory(
+                word, partition, TrendingWordsQueryService.WindowType.from(window), from, to));
+    }
+
+    /**
+     * 저장소를 조회할 수 없는 상태(리밸런싱, 파이프라인 중지 등)는 503으로 응답해 호출한 인스턴스가 스탠바이로 재시도하도록 합니다.
+     */
+    @ExceptionHandler({InvalidStateStoreException.class, IllegalStateException.class})
+    public ResponseEntity<Map<String, String>> handleUnavailable(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,36 +1,53 @@
 package com.example.kafkabasic.controller;
 
+import com.example.kafkabasic.service.ClusterMetadataCache;
+import com.example.kafkabasic.service.ConsumerLagMonitor;
+import com.example.kafkabasic.service.TopicOffsetService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.apache.kafka.clients.admin.*;
-import org.apache.kafka.clients.admin.OffsetSpec;
-import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
-import org.apache.kafka.common.config.ConfigResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
  * Kafka 토픽 관리 및 정보 조회를 위한 REST 컨트롤러
  * 카프카 초보자도 쉽게 토픽 정보를 확인할 수 있는 API를 제공합니다.
+ *
+ * 토픽 목록/상세 정보는 백그라운드에서 갱신되는 클러스터 메타데이터 스냅샷(ClusterMetadataCache)에서 읽고,
+ * 오프셋처럼 매번 바뀌는 값만 TopicOffsetService를 통해 브로커에 조회합니다.
  */
 @RestController
 @RequestMapping("/api/kafka")
 @Tag(name = "Kafka Admin", description = "Kafka 토픽 관리 및 정보 조회 API")
 public class KafkaAdminController {
     
-    private final AdminClient adminClient;
+    private final ClusterMetadataCache clusterMetadataCache;
+    private final TopicOffsetService topicOffsetService;
+    private final ConsumerLagMonitor consumerLagMonitor;
+    private final JsonFactory jsonFactory;
     
     @Autowired
-    public KafkaAdminController(KafkaAdmin kafkaAdmin) {
-        // KafkaAdmin의 설정을 사용하여 AdminClient 생성
-        this.adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+    public KafkaAdminController(ClusterMetadataCache clusterMetadataCache,
+                                TopicOffsetService topicOffsetService,
+                                ConsumerLagMonitor consumerLagMonitor,
+                                ObjectMapper objectMapper) {
+        this.clusterMetadataCache = clusterMetadataCache;
+        this.topicOffsetService = topicOffsetService;
+        this.consumerLagMonitor = consumerLagMonitor;
+        this.jsonFactory = objectMapper.getFactory();
     }
     
     /**
@@ -40,18 +57,12 @@ public class KafkaAdminController {
      */
     @Operation(summary = "모든 Kafka 토픽 목록 조회", description = "Kafka 클러스터에 있는 모든 토픽의 이름을 조회합니다.")
     @GetMapping("/topics")
-    public ResponseEntity<List<String>> getTopics() throws ExecutionException, InterruptedException {
-        // 토픽 목록 조회
-        ListTopicsResult topics = adminClient.listTopics();
-        Set<String> topicNames = topics.names().get();
-        
-        // 내부 토픽 필터링 (언더스코어로 시작하는 토픽은 Kafka 내부 토픽)
-        List<String> userTopics = topicNames.stream()
-                .filter(name -> !name.startsWith("_"))
-                .sorted()
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(userTopics);
+    public ResponseEntity<List<String>> getTopics() {
+        // 토픽 목록 조회 (메타데이터 스냅샷, 내부 토픽 제외)
+        if (clusterMetadataCache.snapshot() == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(clusterMetadataCache.userTopics());
     }
     
     /**
@@ -62,16 +73,22 @@ public class KafkaAdminController {
      */
     @Operation(summary = "토픽 상세 정보 조회", description = "특정 토픽의 파티션 수, 복제 팩터, 설정 등 상세 정보를 조회합니다.")
     @GetMapping("/topics/{topicName}")
-    public ResponseEntity<Map<String, Object>> getTopicInfo(@PathVariable String topicName) 
-            throws ExecutionException, InterruptedException {
+    public ResponseEntity<Map<String, Object>> getTopicInfo(@PathVariable String topicName) {
+        ClusterMetadataCache.ClusterMetadata metadata = clusterMetadataCache.snapshot();
+        if (metadata == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        TopicDescription topicDescription = metadata.topics().get(topicName);
+        if (topicDescription == null) {
+            // 마지막 갱신 이후 생성된 토픽일 수 있으므로 해당 토픽만 브로커에서 다시 조회
+            topicDescription = clusterMetadataCache.refreshTopic(topicName);
+            metadata = clusterMetadataCache.snapshot();
+        }
+        if (topicDescription == null) {
+            return ResponseEntity.notFound().build();
+        }
         Map<String, Object> topicInfo = new HashMap<>();
         
-        // 토픽 설명 가져오기
-        DescribeTopicsResult describeTopicsResult = 
-                adminClient.describeTopics(Collections.singleton(topicName));
-        TopicDescription topicDescription = 
-                describeTopicsResult.allTopicNames().get().get(topicName);
-        
         // 기본 정보 추출
         topicInfo.put("name", topicDescription.name());
         topicInfo.put("partitions", topicDescription.partitions().size());
@@ -87,7 +104,7 @@ public class KafkaAdminController {
         for (TopicPartitionInfo partitionInfo : topicDescription.partitions()) {
             Map<String, Object> partition = new HashMap<>();
             partition.put("id", partitionInfo.partition());
-            partition.put("leader", partitionInfo.leader().id());
+            partition.put("leader", partitionInfo.leader() != null ? partitionInfo.leader().id() : -1);
             partition.put("replicas", partitionInfo.replicas().stream()
                     .map(node -> node.id())
                     .collect(Collectors.toList()));
@@ -95,25 +112,88 @@ public class KafkaAdminController {
         }
         topicInfo.put("partitionsInfo", partitionsInfo);
         
-        // 토픽 설정 가져오기
-        ConfigResource configResource = new ConfigResource(
-                ConfigResource.Type.TOPIC, topicName);
-        DescribeConfigsResult configsResult = 
-                adminClient.describeConfigs(Collections.singleton(configResource));
-        Config config = configsResult.all().get().get(configResource);
-        
-        // 중요 설정만 추출
-        Map<String, String> topicConfig = new HashMap<>();
-        for (ConfigEntry entry : config.entries()) {
-            if (entry.source() != ConfigEntry.ConfigSource.DEFAULT_CONFIG) {
-                topicConfig.put(entry.name(), entry.value());
-            }
-        }
+        // 토픽 설정 (기본값이 아닌 설정만)
+        Map<String, String> topicConfig = metadata.configs().getOrDefault(topicName, Map.of());
         topicInfo.put("config", topicConfig);
         
         return ResponseEntity.ok(topicInfo);
     }
     
+    /**
+     * 여러 토픽의 메시지 수와 파티션별 오프셋 조회
+     * 모든 파티션의 시작/끝 오프셋을 각각 한 번의 요청으로 조회하고, 토픽 순서대로 결과를 JSON으로 씁니다.
+     * 응답 형식: {"topics":[{"topic":..., "totalMessages":..., "partitions":[...]}, ...], "unknownTopics":[...]}
+     * (Spring MVC는 {topicName}보다 리터럴 경로를 우선하므로 이 엔드포인트가 선택되며,
+     *  "messages"라는 이름의 토픽은 /topics/{topicName}으로 상세 조회할 수 없고 ?topic=messages로 메시지 수만 조회할 수 있음)
+     *
+     * @param topics 조회할 토픽 이름 (생략 시 내부 토픽을 제외한 전체 토픽)
+     */
+    @Operation(summary = "토픽별 메시지 수 일괄 조회",
+            description = "전체(또는 지정한) 토픽의 파티션별 시작/끝 오프셋과 메시지 수를 한 번에 조회합니다.")
+    @GetMapping("/topics/messages")
+    public ResponseEntity<?> getTopicsMessageCounts(
+            @Parameter(description = "조회할 토픽 이름 (여러 번 지정 가능, 생략 시 전체 토픽)", example = "word-count-input")
+            @RequestParam(name = "topic", required = false) List<String> topics) {
+        // 응답을 쓰기 시작하면 상태 코드를 바꿀 수 없으므로, 조회 실패가 잘린 JSON과 200이 되지 않도록 결과를 먼저 모두 받음
+        TopicOffsetService.OffsetQuery query;
+        List<TopicOffsetService.TopicOffsets> results = new ArrayList<>();
+        try {
+            query = topicOffsetService.query(topics);
+            for (String topic : query.topics()) {
+                results.add(query.await(topic));
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "오프셋 조회가 중단되었습니다."));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "오프셋 조회 중 오류 발생: " + e.getMessage()));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("topics");
+                for (TopicOffsetService.TopicOffsets offsets : results) {
+                    writeTopicOffsets(generator, offsets);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("unknownTopics");
+                for (String topic : query.unknownTopics()) {
+                    generator.writeString(topic);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void writeTopicOffsets(JsonGenerator generator, TopicOffsetService.TopicOffsets offsets) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("topic", offsets.topic());
+        generator.writeNumberField("totalMessages", offsets.totalMessages());
+        generator.writeArrayFieldStart("partitions");
+        for (TopicOffsetService.PartitionOffsets partition : offsets.partitions()) {
+            generator.writeStartObject();
+            generator.writeNumberField("partition", partition.partition());
+            generator.writeNumberField("earliestOffset", partition.earliest());
+            generator.writeNumberField("latestOffset", partition.latest());
+            generator.writeNumberField("messages", partition.messages());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        if (!offsets.unavailablePartitions().isEmpty()) {
+            generator.writeArrayFieldStart("unavailablePartitions");
+            for (int partition : offsets.unavailablePartitions()) {
+                generator.writeNumber(partition);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+    
     /**
      * 토픽의 메시지 수 추정 (오프셋 기반)
      * 
@@ -122,66 +202,61 @@ public class KafkaAdminController {
      */
     @Operation(summary = "토픽 메시지 수 추정", description = "토픽의 시작 오프셋과 끝 오프셋 차이를 기반으로 메시지 수를 추정합니다.")
     @GetMapping("/topics/{topicName}/messages")
-    public ResponseEntity<Map<String, Object>> getTopicMessageCount(@PathVariable String topicName) 
-            throws ExecutionException, InterruptedException {
+    public ResponseEntity<Map<String, Object>> getTopicMessageCount(@PathVariable String topicName) {
         try {
-            // 토픽 파티션 정보 가져오기
-            DescribeTopicsResult describeTopicsResult = 
-                    adminClient.describeTopics(Collections.singleton(topicName));
-            TopicDescription topicDescription = 
-                    describeTopicsResult.allTopicNames().get().get(topicName);
-            
-            // 토픽의 모든 파티션에 대한 TopicPartition 객체 생성
-            List<TopicPartition> partitions = topicDescription.partitions().stream()
-                    .map(partitionInfo -> new TopicPartition(topicName, partitionInfo.partition()))
-                    .collect(Collectors.toList());
-            
-            // 시작 오프셋 조회를 위한 Map 생성 (각 파티션의 가장 이른 오프셋)
-            Map<TopicPartition, OffsetSpec> earliestOffsetSpecs = partitions.stream()
-                    .collect(Collectors.toMap(
-                            tp -> tp,
-                            tp -> OffsetSpec.earliest()
-                    ));
-            
-            // 끝 오프셋 조회를 위한 Map 생성 (각 파티션의 가장 최근 오프셋)
-            Map<TopicPartition, OffsetSpec> latestOffsetSpecs = partitions.stream()
-                    .collect(Collectors.toMap(
-                            tp -> tp,
-                            tp -> OffsetSpec.latest()
-                    ));
-            
-            // 시작 오프셋 조회
-            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> earliestOffsetResults = 
-                    adminClient.listOffsets(earliestOffsetSpecs).all().get();
-            
-            // 끝 오프셋 조회
-            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latestOffsetResults = 
-                    adminClient.listOffsets(latestOffsetSpecs).all().get();
+            // 시작/끝 오프셋 조회 (파티션 정보는 메타데이터 스냅샷)
+            TopicOffsetService.TopicOffsets offsets = topicOffsetService.offsets(List.of(topicName)).get(topicName);
+            if (offsets == null) {
+                throw new IllegalArgumentException("토픽을 찾을 수 없습니다: " + topicName);
+            }
             
-            // 각 파티션의 메시지 수 계산 및 합산
-            long totalMessages = 0;
+            // 각 파티션의 메시지 수
             Map<Integer, Long> partitionCounts = new HashMap<>();
-            
-            for (TopicPartition partition : partitions) {
-                long startOffset = earliestOffsetResults.get(partition).offset();
-                long endOffset = latestOffsetResults.get(partition).offset();
-                long partitionCount = endOffset - startOffset;
-                
-                partitionCounts.put(partition.partition(), partitionCount);
-                totalMessages += partitionCount;
+            for (TopicOffsetService.PartitionOffsets partition : offsets.partitions()) {
+                partitionCounts.put(partition.partition(), partition.messages());
             }
             
             // 결과 생성
             Map<String, Object> result = new HashMap<>();
             result.put("topic", topicName);
-            result.put("totalMessages", totalMessages);
+            result.put("totalMessages", offsets.totalMessages());
             result.put("partitionCounts", partitionCounts);
+            if (!offsets.unavailablePartitions().isEmpty()) {
+                result.put("unavailablePartitions", offsets.unavailablePartitions());
+            }
             
             return ResponseEntity.ok(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("error", "토픽 메시지 수 조회 중 오류 발생: " + e.getMessage());
             return ResponseEntity.badRequest().body(error);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 컨슈머 그룹 지연 조회
+     * 백그라운드 수집기(ConsumerLagMonitor)의 마지막 수집 결과를 반환합니다.
+     * 
+     * @param groupId 컨슈머 그룹 ID (Streams 파이프라인은 application.id)
+     * @return 전체/파티션별 지연 레코드 수, 따라잡는 데 걸리는 예상 시간, 상태 (OK, LAGGING, STALLED, UNKNOWN)
+     */
+    @Operation(summary = "컨슈머 그룹 지연 조회",
+            description = "컨슈머 그룹의 파티션별 지연 레코드 수와 현재 소비 속도로 따라잡는 데 걸리는 예상 시간을 조회합니다.")
+    @GetMapping("/consumer-groups/{groupId}/lag")
+    public ResponseEntity<?> getConsumerGroupLag(@PathVariable String groupId) {
+        if (!consumerLagMonitor.groups().contains(groupId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "지연을 수집하지 않는 컨슈머 그룹입니다: " + groupId,
+                    "monitoredGroups", consumerLagMonitor.groups()));
+        }
+        ConsumerLagMonitor.GroupLag lag = consumerLagMonitor.lag(groupId);
+        if (lag == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "error", "아직 지연을 수집하지 않았습니다: " + groupId));
+        }
+        return ResponseEntity.ok(lag);
+    }
+}
@@ -1,23 +1,38 @@
 package com.example.kafkabasic.controller;
 
+import com.example.kafkabasic.service.ProducerService;
+import com.example.kafkabasic.service.TrendingWordsQueryService;
+import com.example.kafkabasic.service.WordCountQueryService;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.apache.kafka.streams.KafkaStreams;
-import org.apache.kafka.streams.StoreQueryParameters;
-import org.apache.kafka.streams.state.QueryableStoreTypes;
-import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.config.StreamsBuilderFactoryBean;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Kafka Streams 예제와 상호작용하기 위한 REST 컨트롤러
@@ -28,14 +43,26 @@ import java.util.Map;
 @RequestMapping("/api/streams")
 public class KafkaStreamsController {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final ProducerService producerService;
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final WordCountQueryService wordCountQueryService;
+    private final TrendingWordsQueryService trendingWordsQueryService;
+    private final JsonFactory jsonFactory;
+
+    // 스캔 페이지 크기 상한, multi-get 단어 수 상한
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Autowired
-    public KafkaStreamsController(KafkaTemplate<String, String> kafkaTemplate,
-                                 StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
-        this.kafkaTemplate = kafkaTemplate;
-        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+    public KafkaStreamsController(ProducerService producerService,
+                                 StreamsPipelineRegistry pipelineRegistry,
+                                 WordCountQueryService wordCountQueryService,
+                                 TrendingWordsQueryService trendingWordsQueryService,
+                                 ObjectMapper objectMapper) {
+        this.producerService = producerService;
+        this.pipelineRegistry = pipelineRegistry;
+        this.wordCountQueryService = wordCountQueryService;
+        this.trendingWordsQueryService = trendingWordsQueryService;
+        this.jsonFactory = objectMapper.getFactory();
     }
 
     /**
@@ -46,15 +73,10 @@ public class KafkaStreamsController {
         description = "텍스트 메시지를 word-count-input 토픽으로 전송하여 단어 수 세기 처리를 시작합니다."
     )
     @PostMapping("/word-count")
-    public ResponseEntity<Map<String, String>> sendWordCountMessage(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendWordCountMessage(
             @Parameter(description = "처리할 텍스트 메시지") @RequestBody String message) {
-        kafkaTemplate.send("word-count-input", message);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "메시지가 word-count-input 토픽으로 전송되었습니다.");
-        
-        return ResponseEntity.ok(response);
+        return SendResponses.onAck(producerService.sendMessage("word-count-input", message),
+                Map.of("message", "메시지가 word-count-input 토픽으로 전송되었습니다."));
     }
 
     /**
@@ -65,15 +87,10 @@ public class KafkaStreamsController {
         description = "JSON 형식의 사용자 데이터를 user-data-input 토픽으로 전송하여 데이터 변환 처리를 시작합니다."
     )
     @PostMapping("/user-data")
-    public ResponseEntity<Map<String, String>> sendUserDataMessage(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendUserDataMessage(
             @Parameter(description = "변환할 사용자 데이터 (JSON 형식)") @RequestBody String userDataJson) {
-        kafkaTemplate.send("user-data-input", userDataJson);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "사용자 데이터가 user-data-input 토픽으로 전송되었습니다.");
-        
-        return ResponseEntity.ok(response);
+        return SendResponses.onAck(producerService.sendMessage("user-data-input", userDataJson),
+                Map.of("message", "사용자 데이터가 user-data-input 토픽으로 전송되었습니다."));
     }
 
     /**
@@ -84,20 +101,175 @@ public class KafkaStreamsController {
         description = "JSON 형식의 트랜잭션 데이터를 transaction-input 토픽으로 전송하여 금액에 따른 필터링 처리를 시작합니다."
     )
     @PostMapping("/transaction")
-    public ResponseEntity<Map<String, String>> sendTransactionMessage(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendTransactionMessage(
             @Parameter(description = "필터링할 트랜잭션 데이터 (JSON 형식)") @RequestBody String transactionJson) {
-        kafkaTemplate.send("transaction-input", transactionJson);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "트랜잭션 데이터가 transaction-input 토픽으로 전송되었습니다.");
-        
-        return ResponseEntity.ok(response);
+        return SendResponses.onAck(producerService.sendMessage("transaction-input", transactionJson),
+                Map.of("message", "트랜잭션 데이터가 transaction-input 토픽으로 전송되었습니다."));
+    }
+
+    /**
+     * 여러 단어의 출현 횟수를 한 번에 조회
+     */
+    @Operation(
+        summary = "여러 단어의 출현 횟수 일괄 조회",
+        description = "쉼표로 구분한 단어 목록의 출현 횟수를 한 번의 요청으로 조회합니다. (최대 1000개)"
+    )
+    @GetMapping(value = "/word-count", params = "words")
+    public ResponseEntity<?> getWordCounts(
+            @Parameter(description = "조회할 단어 목록 (쉼표로 구분)", example = "kafka,streams,spring")
+            @RequestParam List<String> words) {
+        List<String> normalized = words.stream()
+                .map(String::strip)
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        if (normalized.isEmpty() || normalized.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("단어는 1개 이상 " + MAX_PAGE_SIZE + "개 이하로 지정해야 합니다.");
+        }
+        try {
+            Map<String, Long> counts = wordCountQueryService.getCounts(normalized);
+            StreamingResponseBody body = outputStream -> {
+                try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                    generator.writeStartObject();
+                    generator.writeArrayFieldStart("items");
+                    for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                        writeWordCount(generator, entry.getKey(), entry.getValue());
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (Exception e) {
+            return queryFailure(e);
+        }
+    }
+
+    /**
+     * 접두사로 시작하는 단어의 출현 횟수 조회 (커서 페이지네이션)
+     */
+    @Operation(
+        summary = "접두사로 단어 출현 횟수 조회",
+        description = "접두사로 시작하는 단어를 키 순서대로 조회합니다. 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회합니다."
+    )
+    @GetMapping("/word-counts/prefix")
+    public ResponseEntity<?> scanWordCountsByPrefix(
+            @Parameter(description = "단어 접두사", example = "ka") @RequestParam String prefix,
+            @Parameter(description = "이전 페이지의 nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "페이지 크기 (최대 1000)", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        if (prefix.isEmpty()) {
+            return ResponseEntity.badRequest().body("접두사를 지정해야 합니다.");
+        }
+        return streamScan(limit, () -> wordCountQueryService.prefixScan(prefix.toLowerCase(Locale.ROOT), cursor, limit));
+    }
+
+    /**
+     * 단어 범위의 출현 횟수 조회 (커서 페이지네이션)
+     */
+    @Operation(
+        summary = "단어 범위로 출현 횟수 조회",
+        description = "from 이상 to 이하 범위의 단어를 키 순서대로 조회합니다. 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회합니다."
+    )
+    @GetMapping("/word-counts/range")
+    public ResponseEntity<?> scanWordCountsByRange(
+            @Parameter(description = "시작 단어 (포함, 생략 시 처음부터)", example = "a") @RequestParam(required = false) String from,
+            @Parameter(description = "끝 단어 (포함, 생략 시 끝까지)", example = "m") @RequestParam(required = false) String to,
+            @Parameter(description = "이전 페이지의 nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "페이지 크기 (최대 1000)", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        return streamScan(limit, () -> wordCountQueryService.rangeScan(
+                from != null ? from.toLowerCase(Locale.ROOT) : null,
+                to != null ? to.toLowerCase(Locale.ROOT) : null,
+                cursor, limit));
+    }
+
+    /**
+     * 스캔 결과를 메모리에 모으지 않고 JSON으로 바로 스트리밍합니다.
+     * 응답 형식: {"items":[{"word":..., "count":...}, ...], "nextCursor": "..."}
+     */
+    private ResponseEntity<?> streamScan(int limit, Supplier<WordCountQueryService.WordCountScan> scanSupplier) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("limit은 1 이상 " + MAX_PAGE_SIZE + " 이하여야 합니다.");
+        }
+        WordCountQueryService.WordCountScan scan;
+        try {
+            scan = scanSupplier.get();
+        } catch (Exception e) {
+            return queryFailure(e);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (scan; JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("items");
+                while (scan.hasNext()) {
+                    KeyValue<String, Long> entry = scan.next();
+                    writeWordCount(generator, entry.key, entry.value);
+                }
+                generator.writeEndArray();
+                generator.writeStringField("nextCursor", scan.nextCursor());
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 상태 저장소 조회 실패 응답
+     * 저장소를 지금 조회할 수 없으면(리밸런싱, 소유 인스턴스 장애, 파이프라인 중지) 503, 그 외에는 400으로 응답합니다.
+     */
+    private static ResponseEntity<String> queryFailure(Exception e) {
+        HttpStatus status = e instanceof InvalidStateStoreException || e instanceof IllegalStateException
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body("상태 저장소 조회 중 오류 발생: " + e.getMessage());
+    }
+
+    private static void writeWordCount(JsonGenerator generator, String word, long count) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("word", word);
+        generator.writeNumberField("count", count);
+        generator.writeEndObject();
+    }
+
+    /**
+     * 가장 많이 나온 단어 상위 k개 조회
+     * 전체 단어 수 저장소를 스캔하지 않고, 태스크별로 메모리에 유지되는 상위 단어 저장소만 병합합니다.
+     * (/word-count/{word} 아래에 두면 "top"이라는 단어를 조회할 수 없으므로 별도 경로 사용)
+     */
+    @Operation(
+        summary = "가장 많이 나온 단어 상위 k개 조회",
+        description = "태스크별 상위 단어 저장소(word-count-top-k)를 병합하여 출현 횟수가 가장 큰 단어 k개를 조회합니다."
+    )
+    @GetMapping("/word-counts/top")
+    public ResponseEntity<?> getTopWords(
+            @Parameter(description = "조회할 단어 수 (최대 top-k.capacity)", example = "10")
+            @RequestParam(defaultValue = "10") int k) {
+        if (k < 1) {
+            return ResponseEntity.badRequest().body("k는 1 이상이어야 합니다.");
+        }
+        try {
+            List<Map<String, Object>> words = new ArrayList<>(k);
+            for (KeyValue<String, Long> entry : wordCountQueryService.topWords(k)) {
+                Map<String, Object> word = new LinkedHashMap<>();
+                word.put("word", entry.key);
+                word.put("count", entry.value);
+                words.add(word);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("k", k);
+            response.put("words", words);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return queryFailure(e);
+        }
     }
 
     /**
      * 단어 수 조회 (특정 단어의 카운트 조회)
-     * 참고: 이 기능을 사용하려면 WordCountStream에 상태 저장소 설정이 필요합니다.
+     * 니어 캐시를 먼저 확인하고, 없으면 캐시된 상태 저장소 핸들로 조회합니다.
      */
     @Operation(
         summary = "특정 단어의 출현 횟수 조회",
@@ -107,24 +279,55 @@ public class KafkaStreamsController {
     public ResponseEntity<?> getWordCount(
             @Parameter(description = "조회할 단어", example = "kafka") @PathVariable String word) {
         try {
-            KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
-            if (kafkaStreams == null) {
-                return ResponseEntity.badRequest().body("Kafka Streams가 아직 초기화되지 않았습니다.");
-            }
-
-            ReadOnlyKeyValueStore<String, Long> counts = kafkaStreams.store(
-                    StoreQueryParameters.fromNameAndType("counts", QueryableStoreTypes.keyValueStore())
-            );
-            
-            Long count = counts.get(word.toLowerCase());
+            long count = wordCountQueryService.getCount(word.toLowerCase(Locale.ROOT));
             
             Map<String, Object> response = new HashMap<>();
             response.put("word", word);
-            response.put("count", count != null ? count : 0);
+            response.put("count", count);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("상태 저장소 조회 중 오류 발생: " + e.getMessage());
+            return queryFailure(e);
+        }
+    }
+
+    /**
+     * 단어의 시간 윈도우별 출현 횟수 조회
+     * 인기 단어 파이프라인의 윈도우 저장소를 시간 범위로 조회합니다.
+     * (/word-count/{word}와 경로 세그먼트 수가 달라 단어 수 조회와 겹치지 않음)
+     */
+    @Operation(
+        summary = "단어의 윈도우별 출현 횟수 조회",
+        description = "인기 단어 파이프라인의 텀블링/호핑 윈도우 저장소에서 시작 시각이 from~to 사이인 윈도우별 출현 횟수를 조회합니다."
+    )
+    @GetMapping("/word-count/{word}/history")
+    public ResponseEntity<?> getWordHistory(
+            @Parameter(description = "조회할 단어", example = "kafka") @PathVariable String word,
+            @Parameter(description = "윈도우 시작 시각 하한 (ISO-8601, 기본값: to의 1시간 전)", example = "2024-01-01T00:00:00Z")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "윈도우 시작 시각 상한 (ISO-8601, 기본값: 현재)", example = "2024-01-01T01:00:00Z")
+            @RequestParam(required = false) Instant to,
+            @Parameter(description = "윈도우 종류 (tumbling 또는 hopping)", example = "tumbling")
+            @RequestParam(defaultValue = "tumbling") String window) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body("from은 to보다 늦을 수 없습니다.");
+        }
+        try {
+            TrendingWordsQueryService.WindowType windowType = TrendingWordsQueryService.WindowType.from(window);
+            String normalized = word.toLowerCase(Locale.ROOT);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("word", normalized);
+            response.put("window", windowType.name().toLowerCase(Locale.ROOT));
+            response.put("from", start);
+            response.put("to", end);
+            response.put("windows", trendingWordsQueryService.history(normalized, windowType, start, end));
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return queryFailure(e);
         }
     }
 
@@ -133,14 +336,18 @@ public class KafkaStreamsController {
      */
     @Operation(
         summary = "Kafka Streams 상태 정보 조회",
-        description = "현재 실행 중인 Kafka Streams 애플리케이션의 상태 정보를 조회합니다."
+        description = "전체 상태와 파이프라인별 Kafka Streams 인스턴스의 상태를 조회합니다."
     )
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStreamsStatus() {
-        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        Map<String, Object> pipelines = new LinkedHashMap<>();
+        for (String name : pipelineRegistry.names()) {
+            pipelines.put(name, pipelineRegistry.state(name));
+        }
         
         Map<String, Object> status = new HashMap<>();
-        status.put("state", kafkaStreams != null ? kafkaStreams.state().name() : "NOT_INITIALIZED");
+        status.put("state", pipelineRegistry.overallState());
+        status.put("pipelines", pipelines);
         
         return ResponseEntity.ok(status);
     }
@@ -153,15 +360,14 @@ public class KafkaStreamsController {
         description = "JSON 형식의 이벤트 데이터를 events-input 토픽으로 전송하여 중요도에 따른 필터링 처리를 시작합니다."
     )
     @PostMapping("/event")
-    public ResponseEntity<Map<String, Object>> sendEventMessage(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendEventMessage(
             @Parameter(description = "필터링할 이벤트 데이터 (JSON 형식)", 
                        example = "{\"id\":\"evt123\",\"type\":\"alert\",\"priority\":8,\"message\":\"시스템 경고\"}") 
             @RequestBody String eventJson) {
         
-        kafkaTemplate.send("events-input", eventJson);
+        CompletableFuture<SendResult<String, String>> future = producerService.sendMessage("events-input", eventJson);
         
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "success");
         response.put("message", "이벤트 데이터가 events-input 토픽으로 전송되었습니다.");
         
         try {
@@ -181,6 +387,6 @@ public class KafkaStreamsController {
             // 파싱 오류는 무시하고 기본 응답만 반환
         }
         
-        return ResponseEntity.ok(response);
+        return SendResponses.onAck(future, response);
     }
 }
\ No newline at end of file
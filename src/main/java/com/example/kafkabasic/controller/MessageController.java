@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -21,10 +23,13 @@ public class MessageController {
         this.transactionalProducerService = transactionalProducerService;
     }
 
+    /**
+     * 메시지 전송 엔드포인트
+     * 브로커 응답(ack)을 받은 뒤 기록된 파티션과 오프셋으로 응답합니다. (실패 시 503)
+     */
     @PostMapping("/send")
-    public ResponseEntity<String> sendMessage(@RequestParam String msg) {
-        producerService.sendMessage("basic-topic", msg);
-        return ResponseEntity.ok("Message sent: " + msg);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> sendMessage(@RequestParam String msg) {
+        return SendResponses.onAck(producerService.sendMessage("basic-topic", msg), Map.of("message", msg));
     }
     
     /**
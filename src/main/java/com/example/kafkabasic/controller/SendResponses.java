@@ -0,0 +1,46 @@
+package com.example.kafkabasic.controller;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 메시지 전송 엔드포인트의 비동기 응답 생성
+ *
+ * 브로커 응답(ack)을 받은 시점에 완료되는 CompletableFuture를 반환하므로,
+ * 요청 스레드는 ack를 기다리며 묶이지 않고 응답에는 실제로 기록된 파티션과 오프셋이 담깁니다.
+ * 전송에 실패하면(버퍼 대기 시간 초과, 브로커 오류 등) 503으로 응답합니다.
+ */
+final class SendResponses {
+
+    private SendResponses() {
+    }
+
+    /**
+     * ack를 받으면 body에 topic, partition, offset을 더해 200으로, 실패하면 오류 메시지와 함께 503으로 완료됩니다.
+     */
+    static CompletableFuture<ResponseEntity<Map<String, Object>>> onAck(
+            CompletableFuture<SendResult<String, String>> future, Map<String, Object> body) {
+        return future.handle((result, ex) -> {
+            Map<String, Object> response = new LinkedHashMap<>(body);
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                response.put("status", "error");
+                response.put("error", "메시지 전송 실패: " + cause.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+            }
+            RecordMetadata metadata = result.getRecordMetadata();
+            response.put("status", "success");
+            response.put("topic", metadata.topic());
+            response.put("partition", metadata.partition());
+            response.put("offset", metadata.offset());
+            return ResponseEntity.ok(response);
+        });
+    }
+}
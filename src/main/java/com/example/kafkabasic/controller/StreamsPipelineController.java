@@ -0,0 +1,93 @@
+package com.example.kafkabasic.controller;
+
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka Streams 파이프라인 관리를 위한 REST 컨트롤러
+ * 파이프라인(토폴로지)마다 별도의 KafkaStreams 인스턴스로 실행되므로 각각을 따로 시작/중지하고 스레드 수를 조정할 수 있습니다.
+ */
+@Tag(name = "Kafka Streams Pipelines", description = "Kafka Streams 파이프라인 관리 API")
+@RestController
+@RequestMapping("/api/streams/pipelines")
+public class StreamsPipelineController {
+
+    private final StreamsPipelineRegistry pipelineRegistry;
+
+    public StreamsPipelineController(StreamsPipelineRegistry pipelineRegistry) {
+        this.pipelineRegistry = pipelineRegistry;
+    }
+
+    /**
+     * 전체 파이프라인 상태 조회
+     */
+    @Operation(summary = "파이프라인 목록 조회", description = "모든 Streams 파이프라인의 상태, 스레드 수, application.id를 조회합니다.")
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getPipelines() {
+        return ResponseEntity.ok(pipelineRegistry.names().stream()
+                .map(pipelineRegistry::describe)
+                .toList());
+    }
+
+    /**
+     * 특정 파이프라인 상태 조회
+     */
+    @Operation(summary = "파이프라인 상태 조회", description = "지정한 Streams 파이프라인의 상태를 조회합니다.")
+    @GetMapping("/{name}")
+    public ResponseEntity<Map<String, Object>> getPipeline(
+            @Parameter(description = "파이프라인 이름", example = "word-count") @PathVariable String name) {
+        return ResponseEntity.ok(pipelineRegistry.describe(name));
+    }
+
+    /**
+     * 파이프라인 시작
+     */
+    @Operation(summary = "파이프라인 시작", description = "중지된 Streams 파이프라인을 시작합니다. 다른 파이프라인에는 영향을 주지 않습니다.")
+    @PostMapping("/{name}/start")
+    public ResponseEntity<Map<String, Object>> startPipeline(
+            @Parameter(description = "파이프라인 이름", example = "word-count") @PathVariable String name) {
+        pipelineRegistry.start(name);
+        return ResponseEntity.ok(pipelineRegistry.describe(name));
+    }
+
+    /**
+     * 파이프라인 중지
+     */
+    @Operation(summary = "파이프라인 중지", description = "Streams 파이프라인을 중지합니다. 다른 파이프라인은 계속 실행됩니다.")
+    @PostMapping("/{name}/stop")
+    public ResponseEntity<Map<String, Object>> stopPipeline(
+            @Parameter(description = "파이프라인 이름", example = "word-count") @PathVariable String name) {
+        pipelineRegistry.stop(name);
+        return ResponseEntity.ok(pipelineRegistry.describe(name));
+    }
+
+    /**
+     * 파이프라인 스트림 스레드 수 조정
+     */
+    @Operation(summary = "파이프라인 스레드 수 조정", description = "재시작 없이 실행 중인 Streams 파이프라인의 스트림 스레드를 추가하거나 제거합니다.")
+    @PostMapping("/{name}/scale")
+    public ResponseEntity<Map<String, Object>> scalePipeline(
+            @Parameter(description = "파이프라인 이름", example = "word-count") @PathVariable String name,
+            @Parameter(description = "목표 스트림 스레드 수", example = "2") @RequestParam int threads) {
+        pipelineRegistry.scale(name, threads);
+        return ResponseEntity.ok(pipelineRegistry.describe(name));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,33 +1,34 @@
 package com.example.kafkabasic.health;
 
-import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.ListTopicsResult;
-import org.apache.kafka.streams.KafkaStreams;
+import com.example.kafkabasic.service.ClusterMetadataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.kafka.config.StreamsBuilderFactoryBean;
-import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Kafka 브로커 및 Streams 상태를 모니터링하는 커스텀 헬스 인디케이터
+ * Kafka 브로커 연결 상태를 모니터링하는 커스텀 헬스 인디케이터
  * Spring Actuator의 /actuator/health 엔드포인트에서 사용됩니다.
+ *
+ * readiness 그룹에 포함되므로 브로커 연결만 판단합니다.
+ * 상태 저장소 복구 여부는 StateRestoreHealthIndicator, 파이프라인 중지/리밸런싱은 KafkaStreamsHealthIndicator에서 따로 보고합니다.
  */
 @Component
 public class KafkaHealthIndicator implements HealthIndicator {
 
-    private final KafkaAdmin kafkaAdmin;
-    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final ClusterMetadataCache clusterMetadataCache;
+    private final Duration maxMetadataStaleness;
 
     @Autowired
-    public KafkaHealthIndicator(KafkaAdmin kafkaAdmin, StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
-        this.kafkaAdmin = kafkaAdmin;
-        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+    public KafkaHealthIndicator(ClusterMetadataCache clusterMetadataCache,
+                                @Value("${app.kafka.admin.metadata.max-staleness-ms:90000}") long maxMetadataStalenessMs) {
+        this.clusterMetadataCache = clusterMetadataCache;
+        this.maxMetadataStaleness = Duration.ofMillis(maxMetadataStalenessMs);
     }
 
     @Override
@@ -35,65 +36,36 @@ public class KafkaHealthIndicator implements HealthIndicator {
         Map<String, Object> details = new HashMap<>();
         
         // Kafka 브로커 연결 상태 확인
-        boolean brokerHealthy = checkBrokerHealth(details);
-        
-        // Kafka Streams 상태 확인
-        boolean streamsHealthy = checkStreamsHealth(details);
-        
-        // 전체 상태 결정
-        if (brokerHealthy && streamsHealthy) {
-            return Health.up().withDetails(details).build();
-        } else {
+        if (!checkBrokerHealth(details)) {
             return Health.down().withDetails(details).build();
         }
+        return Health.up().withDetails(details).build();
     }
 
     /**
      * Kafka 브로커 연결 상태 확인
+     * 프로브마다 AdminClient를 만들지 않고, 백그라운드에서 갱신되는 클러스터 메타데이터 스냅샷이
+     * max-staleness-ms 이내에 갱신되었는지로 판단합니다.
      * 
      * @param details 상태 세부 정보를 담을 맵
      * @return 브로커 연결 상태 (true: 정상, false: 비정상)
      */
     private boolean checkBrokerHealth(Map<String, Object> details) {
-        try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
-            // 토픽 목록 조회 시도 (5초 타임아웃)
-            ListTopicsResult topics = adminClient.listTopics();
-            topics.names().get(5, TimeUnit.SECONDS);
-            
-            details.put("broker.status", "UP");
-            details.put("broker.connection", "Connected to Kafka broker");
-            return true;
-        } catch (Exception e) {
+        Duration staleness = clusterMetadataCache.staleness();
+        clusterMetadataCache.summary().forEach((key, value) -> details.put("broker." + key, value));
+        
+        if (staleness == null) {
             details.put("broker.status", "DOWN");
-            details.put("broker.error", e.getMessage());
+            details.put("broker.connection", "클러스터 메타데이터를 아직 조회하지 못했습니다.");
             return false;
         }
-    }
-
-    /**
-     * Kafka Streams 상태 확인
-     * 
-     * @param details 상태 세부 정보를 담을 맵
-     * @return Streams 상태 (true: 정상, false: 비정상)
-     */
-    private boolean checkStreamsHealth(Map<String, Object> details) {
-        try {
-            KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
-            
-            if (kafkaStreams == null) {
-                details.put("streams.status", "NOT_INITIALIZED");
-                return false;
-            }
-            
-            KafkaStreams.State state = kafkaStreams.state();
-            details.put("streams.status", state.name());
-            
-            // RUNNING 상태인 경우만 정상으로 간주
-            return state == KafkaStreams.State.RUNNING;
-        } catch (Exception e) {
-            details.put("streams.status", "ERROR");
-            details.put("streams.error", e.getMessage());
+        if (staleness.compareTo(maxMetadataStaleness) > 0) {
+            details.put("broker.status", "DOWN");
+            details.put("broker.connection", "클러스터 메타데이터가 " + staleness.toSeconds() + "초 동안 갱신되지 않았습니다.");
             return false;
         }
+        details.put("broker.status", "UP");
+        details.put("broker.connection", "Connected to Kafka broker");
+        return true;
     }
-}
\ No newline at end of file
+}
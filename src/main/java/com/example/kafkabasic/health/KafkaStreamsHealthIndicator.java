@@ -0,0 +1,72 @@
+package com.example.kafkabasic.health;
+
+import com.example.kafkabasic.streams.StateRestoreTracker;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import org.apache.kafka.streams.KafkaStreams;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka Streams 파이프라인 상태를 보고하는 헬스 인디케이터 (/actuator/health의 kafkaStreams 컴포넌트)
+ *
+ * 파이프라인은 관리 API로 개별 중지할 수 있고 리밸런싱은 일시적인 상태이므로 readiness/liveness 그룹에는 포함하지 않습니다.
+ * (복구 중 트래픽 차단은 readiness 그룹의 StateRestoreHealthIndicator가 담당)
+ * - 리밸런싱 중이거나 상태 저장소를 복구 중인 파이프라인은 세부 정보로만 표시 (UP 유지)
+ * - 중지되었거나 오류로 종료된 파이프라인이 있으면 OUT_OF_SERVICE
+ */
+@Component
+public class KafkaStreamsHealthIndicator implements HealthIndicator {
+
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final StateRestoreTracker stateRestoreTracker;
+
+    @Autowired
+    public KafkaStreamsHealthIndicator(StreamsPipelineRegistry pipelineRegistry, StateRestoreTracker stateRestoreTracker) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.stateRestoreTracker = stateRestoreTracker;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new HashMap<>();
+        boolean stopped = false;
+        for (String name : pipelineRegistry.names()) {
+            try {
+                KafkaStreams kafkaStreams = pipelineRegistry.kafkaStreams(name);
+
+                if (kafkaStreams == null) {
+                    details.put(name + ".status", KafkaStreams.State.NOT_RUNNING.name());
+                    stopped = true;
+                    continue;
+                }
+
+                KafkaStreams.State state = kafkaStreams.state();
+
+                // 변경 로그를 재생 중인 저장소가 있으면 RUNNING/REBALANCING이어도 쿼리에 응답할 수 없으므로 구분
+                if (state.isRunningOrRebalancing() && stateRestoreTracker.isRestoring(name)) {
+                    details.put(name + ".status", StateRestoreHealthIndicator.RESTORING.getCode());
+                    continue;
+                }
+                details.put(name + ".status", state.name());
+
+                // 시작 중(CREATED)이거나 리밸런싱 중이면 정상으로 간주하고, 중지/오류 상태만 구분
+                stopped |= !state.isRunningOrRebalancing() && state != KafkaStreams.State.CREATED;
+            } catch (Exception e) {
+                details.put(name + ".status", "ERROR");
+                details.put(name + ".error", e.getMessage());
+                stopped = true;
+            }
+        }
+        details.put("status", pipelineRegistry.overallState());
+
+        if (stopped) {
+            return Health.outOfService().withDetails(details).build();
+        }
+        return Health.up().withDetails(details).build();
+    }
+}
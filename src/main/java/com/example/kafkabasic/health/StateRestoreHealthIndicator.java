@@ -0,0 +1,52 @@
+package com.example.kafkabasic.health;
+
+import com.example.kafkabasic.streams.StateRestoreTracker;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import org.apache.kafka.streams.KafkaStreams;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 상태 저장소 복구 여부를 보고하는 헬스 인디케이터 (/actuator/health의 stateRestore 컴포넌트)
+ *
+ * 변경 로그를 재생 중인 인스턴스는 단어 수/윈도우 조회에 503으로 응답하므로 readiness 그룹에 포함하여
+ * 복구가 끝날 때까지 트래픽을 받지 않도록 합니다.
+ * 복구 중일 때만 RESTORING이며, 파이프라인 중지나 리밸런싱은 KafkaStreamsHealthIndicator에서 따로 보고합니다.
+ */
+@Component
+public class StateRestoreHealthIndicator implements HealthIndicator {
+
+    // 상태 저장소 복구 중 상태 (HTTP 503으로 매핑)
+    public static final Status RESTORING = new Status("RESTORING", "상태 저장소 복구 중");
+
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final StateRestoreTracker stateRestoreTracker;
+
+    @Autowired
+    public StateRestoreHealthIndicator(StreamsPipelineRegistry pipelineRegistry, StateRestoreTracker stateRestoreTracker) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.stateRestoreTracker = stateRestoreTracker;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new HashMap<>();
+        boolean restoring = false;
+        for (String name : pipelineRegistry.names()) {
+            // 중지된 파이프라인에 남은 복구 기록은 무시 (의도적으로 중지한 파이프라인은 준비 상태에 영향을 주지 않음)
+            KafkaStreams kafkaStreams = pipelineRegistry.kafkaStreams(name);
+            boolean pipelineRestoring = kafkaStreams != null
+                    && kafkaStreams.state().isRunningOrRebalancing()
+                    && stateRestoreTracker.isRestoring(name);
+            details.put(name + ".restoring", pipelineRestoring);
+            restoring |= pipelineRestoring;
+        }
+        return Health.status(restoring ? RESTORING : Status.UP).withDetails(details).build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.kafkabasic.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 클러스터 메타데이터(브로커, 토픽, 파티션 리더, 토픽 설정) 캐시
+ *
+ * 공유 AdminClient로 백그라운드에서 주기적으로 스냅샷을 갱신하고,
+ * 대시보드/헬스 체크/관리 API는 요청마다 브로커에 묻지 않고 메모리의 스냅샷을 읽습니다.
+ * 갱신에 실패하면 이전 스냅샷을 유지하며, 스냅샷이 얼마나 오래되었는지는 메트릭으로 확인할 수 있습니다.
+ * 토픽을 생성/삭제/설정 변경한 직후에는 refreshTopic()으로 해당 토픽만 바로 반영합니다.
+ */
+@Component
+public class ClusterMetadataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMetadataCache.class);
+
+    private final AdminClient adminClient;
+    private final long requestTimeoutMs;
+    private final Timer refreshTimer;
+
+    private volatile ClusterMetadata snapshot;
+    private volatile String lastError;
+
+    public ClusterMetadataCache(AdminClient adminClient,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.kafka.admin.metadata.refresh-interval-ms:30000}") long refreshIntervalMs,
+                                @Value("${app.kafka.admin.metadata.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.adminClient = adminClient;
+        this.requestTimeoutMs = requestTimeoutMs;
+
+        this.refreshTimer = Timer.builder("kafka.admin.metadata.refresh")
+                .description("클러스터 메타데이터 스냅샷 갱신 시간")
+                .register(meterRegistry);
+        Gauge.builder("kafka.admin.metadata.refresh.interval", () -> refreshIntervalMs / 1000.0)
+                .description("클러스터 메타데이터 갱신 주기")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("kafka.admin.metadata.staleness", this, ClusterMetadataCache::stalenessSeconds)
+                .description("마지막으로 성공한 메타데이터 갱신 이후 경과 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 클러스터 메타데이터 스냅샷
+     *
+     * @param clusterId 클러스터 ID
+     * @param controller 컨트롤러 브로커 (알 수 없으면 null)
+     * @param brokers 브로커 목록
+     * @param topics 토픽 이름 -> 토픽 설명 (파티션, 리더, 복제본), 이름순
+     * @param configs 토픽 이름 -> 기본값이 아닌 토픽 설정
+     * @param refreshedAt 스냅샷 갱신 시각
+     */
+    public record ClusterMetadata(String clusterId,
+                                  Node controller,
+                                  Collection<Node> brokers,
+                                  Map<String, TopicDescription> topics,
+                                  Map<String, Map<String, String>> configs,
+                                  Instant refreshedAt) {
+    }
+
+    /**
+     * 메타데이터 스냅샷을 갱신합니다. (refresh-interval-ms 주기, 애플리케이션 시작 직후 첫 갱신)
+     * 클러스터 정보, 토픽 설명, 토픽 설정을 각각 한 번의 요청으로 조회합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka.admin.metadata.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        Timer.Sample sample = Timer.start();
+        try {
+            DescribeClusterResult cluster = adminClient.describeCluster();
+            Set<String> topicNames = adminClient.listTopics().names().get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+
+            Map<String, TopicDescription> topics = new TreeMap<>(
+                    adminClient.describeTopics(topicNames).allTopicNames().get(requestTimeoutMs, TimeUnit.MILLISECONDS));
+
+            List<ConfigResource> resources = topicNames.stream()
+                    .map(name -> new ConfigResource(ConfigResource.Type.TOPIC, name))
+                    .toList();
+            Map<ConfigResource, Config> configs = adminClient.describeConfigs(resources)
+                    .all().get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+            Map<String, Map<String, String>> topicConfigs = new TreeMap<>();
+            configs.forEach((resource, config) -> topicConfigs.put(resource.name(), nonDefault(config)));
+
+            snapshot = new ClusterMetadata(
+                    cluster.clusterId().get(requestTimeoutMs, TimeUnit.MILLISECONDS),
+                    cluster.controller().get(requestTimeoutMs, TimeUnit.MILLISECONDS),
+                    List.copyOf(cluster.nodes().get(requestTimeoutMs, TimeUnit.MILLISECONDS)),
+                    topics,
+                    topicConfigs,
+                    Instant.now());
+            lastError = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 이전 스냅샷은 그대로 유지 (staleness 메트릭으로 오래된 정도를 확인)
+            lastError = e.getMessage();
+            log.warn("클러스터 메타데이터 갱신 실패: {}", e.getMessage());
+        } finally {
+            sample.stop(refreshTimer);
+        }
+    }
+
+    /**
+     * 토픽 하나의 설명과 설정을 브로커에서 다시 조회해 스냅샷에 반영합니다.
+     * 토픽을 생성/삭제/설정 변경한 직후나 스냅샷에 없는 토픽을 조회할 때 다음 주기적 갱신을 기다리지 않도록 호출하며,
+     * 토픽이 없으면 스냅샷에서 제거합니다. (전체 갱신과 겹쳐 반영이 덮어쓰이지 않도록 refresh()와 같은 락 사용)
+     *
+     * @return 반영된 토픽 설명 (토픽이 없으면 null, 조회에 실패하면 스냅샷의 기존 값)
+     */
+    public synchronized TopicDescription refreshTopic(String topicName) {
+        ClusterMetadata metadata = snapshot;
+        if (metadata == null) {
+            return null;
+        }
+
+        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topicName);
+        TopicDescription description;
+        Map<String, String> config;
+        try {
+            description = adminClient.describeTopics(List.of(topicName)).allTopicNames()
+                    .get(requestTimeoutMs, TimeUnit.MILLISECONDS).get(topicName);
+            config = nonDefault(adminClient.describeConfigs(List.of(resource)).all()
+                    .get(requestTimeoutMs, TimeUnit.MILLISECONDS).get(resource));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return metadata.topics().get(topicName);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                log.warn("토픽 메타데이터 갱신 실패: topic={}, error={}", topicName, e.getMessage());
+                return metadata.topics().get(topicName);
+            }
+            // 삭제되었거나 존재하지 않는 토픽
+            description = null;
+            config = null;
+        } catch (TimeoutException e) {
+            log.warn("토픽 메타데이터 갱신 시간 초과: topic={}", topicName);
+            return metadata.topics().get(topicName);
+        }
+
+        Map<String, TopicDescription> topics = new TreeMap<>(metadata.topics());
+        Map<String, Map<String, String>> configs = new TreeMap<>(metadata.configs());
+        if (description != null) {
+            topics.put(topicName, description);
+            configs.put(topicName, config);
+        } else {
+            topics.remove(topicName);
+            configs.remove(topicName);
+        }
+        // 전체 갱신 시각(staleness)은 그대로 유지
+        snapshot = new ClusterMetadata(metadata.clusterId(), metadata.controller(), metadata.brokers(),
+                topics, configs, metadata.refreshedAt());
+        return description;
+    }
+
+    /**
+     * 현재 스냅샷 (아직 한 번도 갱신에 성공하지 못했으면 null)
+     */
+    public ClusterMetadata snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 사용자 토픽 이름 목록 (언더스코어로 시작하는 내부 토픽 제외, 이름순)
+     */
+    public List<String> userTopics() {
+        ClusterMetadata metadata = snapshot;
+        if (metadata == null) {
+            return List.of();
+        }
+        return metadata.topics().keySet().stream()
+                .filter(name -> !name.startsWith("_"))
+                .toList();
+    }
+
+    /**
+     * 마지막으로 성공한 갱신 이후 경과 시간 (한 번도 성공하지 못했으면 null)
+     */
+    public Duration staleness() {
+        ClusterMetadata metadata = snapshot;
+        return metadata != null ? Duration.between(metadata.refreshedAt(), Instant.now()) : null;
+    }
+
+    private double stalenessSeconds() {
+        Duration staleness = staleness();
+        return staleness != null ? staleness.toMillis() / 1000.0 : Double.NaN;
+    }
+
+    /**
+     * 마지막 갱신 실패 메시지 (마지막 갱신이 성공했으면 null)
+     */
+    public String lastError() {
+        return lastError;
+    }
+
+    /**
+     * 스냅샷 요약 (헬스 체크/대시보드용)
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        ClusterMetadata metadata = snapshot;
+        if (metadata != null) {
+            summary.put("clusterId", metadata.clusterId());
+            summary.put("brokers", metadata.brokers().size());
+            summary.put("topics", metadata.topics().size());
+            summary.put("refreshedAt", metadata.refreshedAt().toString());
+            summary.put("stalenessMs", Duration.between(metadata.refreshedAt(), Instant.now()).toMillis());
+        }
+        if (lastError != null) {
+            summary.put("lastError", lastError);
+        }
+        return summary;
+    }
+
+    private static Map<String, String> nonDefault(Config config) {
+        return config.entries().stream()
+                .filter(entry -> entry.source() != ConfigEntry.ConfigSource.DEFAULT_CONFIG)
+                .filter(entry -> entry.value() != null)
+                .collect(Collectors.toMap(ConfigEntry::name, ConfigEntry::value, (a, b) -> a, TreeMap::new));
+    }
+}
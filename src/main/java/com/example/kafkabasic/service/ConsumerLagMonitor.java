@@ -0,0 +1,315 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 컨슈머 그룹 지연(lag) 수집기
+ *
+ * 주기적으로 공유 AdminClient로 그룹별 커밋된 오프셋과 파티션 끝 오프셋을 조회하여
+ * 파티션별 지연(레코드 수)을 계산하고 Micrometer 게이지로 노출합니다.
+ * 이전 수집 이후 커밋된 오프셋이 늘어난 속도로 지연을 따라잡는 데 걸리는 시간(초)도 추정합니다.
+ *
+ * 대상 그룹은 app.kafka.consumer-lag.groups에 지정한 그룹과 모든 Streams 파이프라인의 application.id입니다.
+ */
+@Component
+public class ConsumerLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+
+    /**
+     * 그룹 지연 상태
+     * OK: 임계값 이내, LAGGING: 지연 레코드 수 또는 예상 시간이 임계값 초과,
+     * STALLED: 지연이 있는데 지난 수집 주기 동안 커밋된 오프셋이 전혀 늘지 않은 파티션이 있음,
+     * UNKNOWN: 그룹 오프셋이나 일부 파티션의 끝 오프셋을 조회하지 못해 지연을 판단할 수 없음
+     */
+    public enum Status { OK, LAGGING, STALLED, UNKNOWN }
+
+    /**
+     * 파티션 하나의 지연
+     *
+     * @param committedOffset 그룹이 커밋한 오프셋
+     * @param endOffset 파티션 끝 오프셋
+     * @param lag 지연 레코드 수 (endOffset - committedOffset)
+     * @param recordsPerSecond 지난 수집 주기 동안의 소비 속도 (첫 수집이면 null)
+     */
+    public record PartitionLag(String topic, int partition, long committedOffset, long endOffset,
+                               long lag, Double recordsPerSecond) {
+    }
+
+    /**
+     * 그룹 하나의 지연
+     * 그룹 오프셋 조회에 실패하면 상태를 UNKNOWN으로 하고, 이전에 성공한 수집 결과가 있으면 그 값과 수집 시각을 그대로 보여줍니다.
+     *
+     * @param totalLag 전체 파티션 지연 레코드 수 합계 (한 번도 수집하지 못했으면 null)
+     * @param estimatedSeconds 현재 소비 속도로 지연을 모두 따라잡는 데 걸리는 예상 시간 (가장 느린 파티션 기준, 추정할 수 없으면 null)
+     * @param partitions 파티션별 지연 (지연이 큰 순)
+     * @param collectedAt 지연 값을 수집한 시각 (UNKNOWN이면 마지막으로 성공한 수집 시각)
+     * @param error 마지막 수집 실패 메시지 (성공했으면 null)
+     */
+    public record GroupLag(String groupId, Long totalLag, Double estimatedSeconds, Status status,
+                           List<PartitionLag> partitions, Instant collectedAt, String error) {
+    }
+
+    private record GroupPartition(String groupId, TopicPartition partition) {
+    }
+
+    private final AdminClient adminClient;
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final List<String> configuredGroups;
+    private final long requestTimeoutMs;
+    private final long maxLagRecords;
+    private final long maxLagSeconds;
+
+    private final MultiGauge partitionLagGauge;
+    private final MultiGauge groupLagGauge;
+    private final MultiGauge groupLagSecondsGauge;
+
+    // 소비 속도 계산용 직전 수집 결과 (수집 스레드에서만 접근)
+    private Map<GroupPartition, PartitionLag> previous = Map.of();
+    private long previousNanos;
+
+    private volatile Map<String, GroupLag> snapshot = Map.of();
+
+    public ConsumerLagMonitor(AdminClient adminClient,
+                              StreamsPipelineRegistry pipelineRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.kafka.consumer-lag.groups:basic-group,error-demo-group}") List<String> configuredGroups,
+                              @Value("${app.kafka.admin.metadata.request-timeout-ms:10000}") long requestTimeoutMs,
+                              @Value("${app.kafka.consumer-lag.max-lag-records:10000}") long maxLagRecords,
+                              @Value("${app.kafka.consumer-lag.max-lag-seconds:60}") long maxLagSeconds) {
+        this.adminClient = adminClient;
+        this.pipelineRegistry = pipelineRegistry;
+        this.configuredGroups = List.copyOf(configuredGroups);
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.maxLagRecords = maxLagRecords;
+        this.maxLagSeconds = maxLagSeconds;
+
+        this.partitionLagGauge = MultiGauge.builder("kafka.consumer.group.lag")
+                .description("컨슈머 그룹의 파티션별 지연 레코드 수")
+                .baseUnit("records")
+                .register(meterRegistry);
+        this.groupLagGauge = MultiGauge.builder("kafka.consumer.group.lag.total")
+                .description("컨슈머 그룹의 전체 지연 레코드 수")
+                .baseUnit("records")
+                .register(meterRegistry);
+        this.groupLagSecondsGauge = MultiGauge.builder("kafka.consumer.group.lag.seconds")
+                .description("현재 소비 속도로 지연을 따라잡는 데 걸리는 예상 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 지연을 수집하여 스냅샷과 게이지를 갱신합니다. (interval-ms 주기)
+     * 그룹 오프셋은 모든 그룹을 한 번의 요청으로, 끝 오프셋은 모든 파티션을 한 번의 요청으로 조회합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka.consumer-lag.interval-ms:15000}")
+    public void collect() {
+        List<String> groups = groups();
+        long nowNanos = System.nanoTime();
+        long deadlineNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs);
+
+        Map<String, ListConsumerGroupOffsetsSpec> specs = new LinkedHashMap<>();
+        groups.forEach(group -> specs.put(group, new ListConsumerGroupOffsetsSpec()));
+        ListConsumerGroupOffsetsResult groupOffsets = adminClient.listConsumerGroupOffsets(specs);
+
+        // 그룹별 커밋된 오프셋 (그룹 하나가 실패해도 나머지 그룹은 계속 수집)
+        Map<String, Map<TopicPartition, Long>> committed = new LinkedHashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        Set<TopicPartition> partitions = new LinkedHashSet<>();
+        try {
+            for (String group : groups) {
+                try {
+                    Map<TopicPartition, Long> offsets = new HashMap<>();
+                    groupOffsets.partitionsToOffsetAndMetadata(group)
+                            .get(remaining(deadlineNanos), TimeUnit.NANOSECONDS)
+                            .forEach((partition, offset) -> {
+                                // 커밋한 적 없는 파티션은 null
+                                if (offset != null) {
+                                    offsets.put(partition, offset.offset());
+                                }
+                            });
+                    committed.put(group, offsets);
+                    partitions.addAll(offsets.keySet());
+                } catch (ExecutionException | TimeoutException e) {
+                    errors.put(group, e.getMessage());
+                    log.warn("컨슈머 그룹 오프셋 조회 실패: group={}, error={}", group, e.getMessage());
+                }
+            }
+
+            Map<TopicPartition, OffsetSpec> latestSpecs = new HashMap<>();
+            partitions.forEach(partition -> latestSpecs.put(partition, OffsetSpec.latest()));
+            ListOffsetsResult latest = adminClient.listOffsets(latestSpecs);
+            Map<TopicPartition, Long> endOffsets = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                try {
+                    endOffsets.put(partition, latest.partitionResult(partition)
+                            .get(remaining(deadlineNanos), TimeUnit.NANOSECONDS).offset());
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("파티션 끝 오프셋 조회 실패: partition={}, error={}", partition, e.getMessage());
+                }
+            }
+
+            update(groups, committed, endOffsets, errors, nowNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void update(List<String> groups,
+                        Map<String, Map<TopicPartition, Long>> committed,
+                        Map<TopicPartition, Long> endOffsets,
+                        Map<String, String> errors,
+                        long nowNanos) {
+        double elapsedSeconds = previousNanos > 0 ? (nowNanos - previousNanos) / 1_000_000_000.0 : 0;
+        Instant collectedAt = Instant.now();
+
+        Map<GroupPartition, PartitionLag> current = new HashMap<>();
+        Map<String, GroupLag> groupLags = new TreeMap<>();
+        List<MultiGauge.Row<?>> partitionRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> groupRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> secondsRows = new ArrayList<>();
+
+        for (String group : groups) {
+            if (!committed.containsKey(group)) {
+                // 오프셋 조회 실패: 지연 0(OK)으로 보고하지 않고 이전 수집 결과를 UNKNOWN으로 유지
+                GroupLag last = snapshot.get(group);
+                groupLags.put(group, last != null
+                        ? new GroupLag(group, last.totalLag(), last.estimatedSeconds(), Status.UNKNOWN,
+                                last.partitions(), last.collectedAt(), errors.get(group))
+                        : new GroupLag(group, null, null, Status.UNKNOWN, List.of(), null, errors.get(group)));
+                groupRows.add(MultiGauge.Row.of(Tags.of("group", group), Double.NaN));
+                secondsRows.add(MultiGauge.Row.of(Tags.of("group", group), Double.NaN));
+                continue;
+            }
+
+            List<PartitionLag> lags = new ArrayList<>();
+            int unavailablePartitions = 0;
+            long totalLag = 0;
+            double estimatedSeconds = 0;
+            boolean estimable = true;
+            boolean stalled = false;
+
+            for (Map.Entry<TopicPartition, Long> entry : committed.getOrDefault(group, Map.of()).entrySet()) {
+                TopicPartition partition = entry.getKey();
+                Long endOffset = endOffsets.get(partition);
+                if (endOffset == null) {
+                    unavailablePartitions++;
+                    continue;
+                }
+                long committedOffset = entry.getValue();
+                long lag = Math.max(0, endOffset - committedOffset);
+
+                GroupPartition key = new GroupPartition(group, partition);
+                PartitionLag before = previous.get(key);
+                Double rate = before != null && elapsedSeconds > 0
+                        ? Math.max(0, committedOffset - before.committedOffset()) / elapsedSeconds
+                        : null;
+
+                PartitionLag partitionLag = new PartitionLag(
+                        partition.topic(), partition.partition(), committedOffset, endOffset, lag, rate);
+                current.put(key, partitionLag);
+                lags.add(partitionLag);
+                totalLag += lag;
+
+                if (lag > 0) {
+                    if (rate == null) {
+                        estimable = false;
+                    } else if (rate == 0) {
+                        // 직전 수집에도 지연이 있었는데 커밋이 전혀 진행되지 않음
+                        estimable = false;
+                        stalled |= before.lag() > 0;
+                    } else {
+                        estimatedSeconds = Math.max(estimatedSeconds, lag / rate);
+                    }
+                }
+
+                partitionRows.add(MultiGauge.Row.of(Tags.of(
+                        "group", group,
+                        "topic", partition.topic(),
+                        "partition", String.valueOf(partition.partition())), lag));
+            }
+
+            lags.sort(Comparator.comparingLong(PartitionLag::lag).reversed());
+            Double seconds = estimable ? estimatedSeconds : null;
+            // 끝 오프셋을 모르는 파티션이 있으면 확인된 지연만으로는 OK라고 판단할 수 없음
+            Status status = stalled ? Status.STALLED
+                    : totalLag > maxLagRecords || (seconds != null && seconds > maxLagSeconds) ? Status.LAGGING
+                    : unavailablePartitions > 0 ? Status.UNKNOWN
+                    : Status.OK;
+            String error = unavailablePartitions > 0
+                    ? "끝 오프셋을 조회하지 못한 파티션 " + unavailablePartitions + "개"
+                    : null;
+            groupLags.put(group, new GroupLag(group, totalLag, seconds, status, List.copyOf(lags), collectedAt, error));
+
+            groupRows.add(MultiGauge.Row.of(Tags.of("group", group),
+                    status == Status.UNKNOWN ? Double.NaN : (double) totalLag));
+            secondsRows.add(MultiGauge.Row.of(Tags.of("group", group), seconds != null ? seconds : Double.NaN));
+        }
+
+        // overwrite=true: 더 이상 없는 파티션/그룹의 게이지는 제거
+        partitionLagGauge.register(partitionRows, true);
+        groupLagGauge.register(groupRows, true);
+        groupLagSecondsGauge.register(secondsRows, true);
+
+        previous = current;
+        previousNanos = nowNanos;
+        snapshot = groupLags;
+    }
+
+    /**
+     * 수집 대상 그룹 ID (설정한 그룹 + Streams 파이프라인 application.id)
+     */
+    public List<String> groups() {
+        Set<String> groups = new LinkedHashSet<>(configuredGroups);
+        for (String pipeline : pipelineRegistry.names()) {
+            groups.add(pipelineRegistry.applicationId(pipeline));
+        }
+        return List.copyOf(groups);
+    }
+
+    /**
+     * 그룹의 마지막 수집 결과 (수집 대상이 아니거나 아직 수집 전이면 null)
+     */
+    public GroupLag lag(String groupId) {
+        return snapshot.get(groupId);
+    }
+
+    /**
+     * 모든 그룹의 마지막 수집 결과 (그룹 ID순)
+     */
+    public Map<String, GroupLag> snapshot() {
+        return snapshot;
+    }
+
+    private static long remaining(long deadlineNanos) {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+}
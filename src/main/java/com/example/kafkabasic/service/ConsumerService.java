@@ -1,86 +1,136 @@
 package com.example.kafkabasic.service;
 
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.example.kafkabasic.config.RetryTopics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Kafka 메시지 소비자 서비스
  * 다양한 토픽의 메시지를 처리하고 오류 처리 및 재시도 메커니즘을 시연합니다.
- * Resilience4j를 사용하여 재시도, 서킷 브레이커, 벌크헤드 패턴을 적용합니다.
+ * 사용자 데이터 처리에는 UserDataProcessor를 통해 Resilience4j 서킷 브레이커, 벌크헤드 패턴을 적용하고
+ * 실패한 메시지는 단계별 재시도 토픽(.retry-1s, .retry-10s, .retry-60s)을 거쳐 DLQ로 보냅니다.
  */
 @Service
 public class ConsumerService {
     
     private static final Logger log = LoggerFactory.getLogger(ConsumerService.class);
 
+    private final UserDataProcessor userDataProcessor;
+    private final KeyOrderedRecordProcessor keyOrderedRecordProcessor;
+    private final TransactionPipelineService transactionPipelineService;
+
+    public ConsumerService(UserDataProcessor userDataProcessor,
+                           KeyOrderedRecordProcessor keyOrderedRecordProcessor,
+                           TransactionPipelineService transactionPipelineService) {
+        this.userDataProcessor = userDataProcessor;
+        this.keyOrderedRecordProcessor = keyOrderedRecordProcessor;
+        this.transactionPipelineService = transactionPipelineService;
+    }
+
     /**
-     * 기본 토픽 리스너
-     * 모든 메시지를 정상적으로 처리합니다.
+     * 기본 토픽 리스너 (배치 모드)
+     * poll 단위로 여러 메시지를 한 번에 전달받아 처리합니다.
      */
-    @KafkaListener(topics = "basic-topic", groupId = "basic-group")
-    public void listen(String message) {
-        log.info("기본 토픽에서 메시지 수신: {}", message);
+    @KafkaListener(topics = "basic-topic", groupId = "basic-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, String>> records) {
+        log.debug("기본 토픽에서 {}건 배치 수신", records.size());
+        processBatch(records, record -> log.info("기본 토픽에서 메시지 수신: {}", record.value()));
     }
 
     /**
-     * 트랜잭션 토픽 리스너
-     * 모든 메시지를 정상적으로 처리합니다.
+     * 트랜잭션 토픽 리스너 (exactly-once consume-transform-produce)
+     * 컨테이너가 시작한 Kafka 트랜잭션 안에서 배치를 변환하여 전송하고,
+     * 소비한 오프셋을 같은 트랜잭션으로 커밋합니다.
      */
-    @KafkaListener(topics = "transaction-topic", groupId = "basic-group")
-    public void listenTransaction(String message) {
-        log.info("트랜잭션 토픽에서 메시지 수신: {}", message);
+    @KafkaListener(topics = TransactionPipelineService.INPUT_TOPIC, groupId = "basic-group",
+            containerFactory = "exactlyOnceKafkaListenerContainerFactory")
+    public void listenTransaction(List<ConsumerRecord<String, String>> records) {
+        log.debug("트랜잭션 토픽에서 {}건 배치 수신", records.size());
+        transactionPipelineService.process(records);
     }
-    
+
     /**
-     * 오류 시연용 리스너 (Resilience4j 적용)
-     * "error"를 포함하는 메시지를 처리할 때 예외를 발생시켜 재시도 및 DLQ 메커니즘을 시연합니다.
-     * 
-     * 이 리스너는 다음과 같이 동작합니다:
-     * 1. "error"를 포함하는 메시지: RuntimeException 발생 -> Resilience4j 재시도 -> DLQ로 전송
-     * 2. "invalid"를 포함하는 메시지: IllegalArgumentException 발생 -> 재시도 없이 바로 DLQ로 전송
-     * 3. 그 외 메시지: 정상 처리
-     * 
-     * Resilience4j 패턴 적용:
-     * - @Retry: 최대 3번 재시도, 지수 백오프 적용
-     * - @CircuitBreaker: 50% 실패율에 서킷 오픈
-     * - @Bulkhead: 최대 20개의 동시 호출 허용
+     * 배치 내 레코드를 순서대로 처리합니다.
+     * 처리 중 예외가 발생하면 실패한 레코드를 BatchListenerFailedException으로 알려
+     * 에러 핸들러가 이전 레코드는 커밋하고 실패한 레코드만 재시도/DLQ 처리하도록 합니다.
      */
-    @Retry(name = "kafkaConsumer", fallbackMethod = "fallbackForKafkaConsumer")
-    @CircuitBreaker(name = "kafkaConsumer", fallbackMethod = "fallbackForKafkaConsumer")
-    @Bulkhead(name = "kafkaConsumer", fallbackMethod = "fallbackForKafkaConsumer")
-    @KafkaListener(topics = "user-data-input", groupId = "error-demo-group")
-    public void listenWithErrorHandling(String message) {
-        log.info("사용자 데이터 토픽에서 메시지 수신: {}", message);
-        
-        // "error"를 포함하는 메시지는 RuntimeException 발생 (재시도 후 DLQ로)
-        if (message.contains("error")) {
-            log.error("오류 메시지 감지: {}", message);
-            throw new RuntimeException("메시지 처리 중 오류 발생: " + message);
-        }
-        
-        // "invalid"를 포함하는 메시지는 IllegalArgumentException 발생 (재시도 없이 바로 DLQ로)
-        if (message.contains("invalid")) {
-            log.error("유효하지 않은 메시지 감지: {}", message);
-            throw new IllegalArgumentException("유효하지 않은 메시지: " + message);
+    private void processBatch(List<ConsumerRecord<String, String>> records,
+                              Consumer<ConsumerRecord<String, String>> handler) {
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                handler.accept(record);
+            } catch (RuntimeException e) {
+                log.error("배치 처리 중 오류 발생: topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset());
+                throw new BatchListenerFailedException("배치 레코드 처리 실패", e, record);
+            }
         }
-        
-        // 정상 메시지 처리
-        log.info("메시지 정상 처리 완료: {}", message);
     }
     
     /**
-     * Resilience4j 폴백 메서드
-     * 모든 재시도가 실패하거나 서킷이 열렸을 때 호출됩니다.
-     * 이 메서드는 DLQ로 메시지를 전송하는 로직을 포함할 수 있습니다.
+     * 오류 시연용 리스너 (키 순서 보장 병렬 처리)
+     * 배치로 전달받은 레코드를 가상 스레드로 병렬 처리하되, 같은 키의 레코드는 순서대로 처리합니다.
+     * 레코드 단위 처리와 Resilience4j 서킷 브레이커/벌크헤드는 UserDataProcessor가 담당합니다.
+     * 실패한 레코드는 파티션을 멈추지 않고 단계별 재시도 토픽으로 옮겨집니다.
      */
-    public void fallbackForKafkaConsumer(String message, Exception ex) {
-        log.error("Resilience4j 폴백 처리: 메시지={}, 예외={}", message, ex.getMessage());
-        // 여기서 DLQ로 메시지를 직접 전송하는 로직을 추가할 수 있습니다.
-        // 하지만 현재는 KafkaConfig의 errorHandler가 이 역할을 담당합니다.
+    @KafkaListener(topics = RetryTopics.USER_DATA_INPUT, groupId = "error-demo-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void listenWithErrorHandling(List<ConsumerRecord<String, String>> records) {
+        log.debug("사용자 데이터 토픽에서 {}건 배치 수신", records.size());
+        keyOrderedRecordProcessor.process(records, record -> userDataProcessor.process(record.value()));
+    }
+
+    /**
+     * 1초 지연 재시도 토픽 리스너
+     */
+    @KafkaListener(topics = RetryTopics.USER_DATA_RETRY_1S, groupId = "error-demo-group",
+            containerFactory = "retryKafkaListenerContainerFactory")
+    public void listenRetry1s(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        processWhenDue(record, ack);
+    }
+
+    /**
+     * 10초 지연 재시도 토픽 리스너
+     */
+    @KafkaListener(topics = RetryTopics.USER_DATA_RETRY_10S, groupId = "error-demo-group",
+            containerFactory = "retryKafkaListenerContainerFactory")
+    public void listenRetry10s(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        processWhenDue(record, ack);
+    }
+
+    /**
+     * 60초 지연 재시도 토픽 리스너
+     */
+    @KafkaListener(topics = RetryTopics.USER_DATA_RETRY_60S, groupId = "error-demo-group",
+            containerFactory = "retryKafkaListenerContainerFactory")
+    public void listenRetry60s(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        processWhenDue(record, ack);
+    }
+
+    /**
+     * 재시도 레코드를 처리 예정 시각이 되었을 때 처리합니다.
+     * 아직 시각이 되지 않았으면 nack으로 레코드를 되돌리고 남은 시간만큼 이 재시도 토픽의 소비만 멈춥니다.
+     * 처리에 실패하면 에러 핸들러가 다음 재시도 토픽(또는 DLQ)으로 전송합니다.
+     */
+    private void processWhenDue(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        long remainingMs = RetryTopics.dueAt(record) - System.currentTimeMillis();
+        if (remainingMs > 0) {
+            ack.nack(Duration.ofMillis(remainingMs));
+            return;
+        }
+
+        log.info("재시도 토픽 {}에서 메시지 재처리: offset={}", record.topic(), record.offset());
+        userDataProcessor.process(record.value());
+        ack.acknowledge();
     }
 }
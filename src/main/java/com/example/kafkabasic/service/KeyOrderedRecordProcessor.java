@@ -0,0 +1,114 @@
+package com.example.kafkabasic.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * 배치 내 레코드를 키 단위 순서를 지키면서 가상 스레드로 병렬 처리하는 컴포넌트
+ *
+ * 동작 방식:
+ * 1. 같은 키를 가진 레코드는 이전 레코드의 처리가 끝난 뒤에 이어서 실행됩니다. (키별 순서 보장)
+ * 2. 서로 다른 키의 레코드는 가상 스레드에서 동시에 처리됩니다.
+ * 3. 키가 없는 레코드는 파티션 단위로 순서를 유지합니다.
+ * 4. 배치의 모든 레코드가 끝난 뒤 반환하므로 오프셋은 앞선 레코드가 모두 완료된 후에만 커밋됩니다.
+ * 5. 실패한 레코드가 있으면 배치 내 가장 앞선 실패 레코드를 BatchListenerFailedException으로 알려
+ *    에러 핸들러가 그 이전 레코드까지만 커밋하도록 합니다. 같은 키의 후속 레코드는 실행되지 않습니다.
+ *
+ * 실패 레코드 이후의 레코드는 이미 처리되었더라도 다시 전달될 수 있으므로 (at-least-once)
+ * 핸들러는 멱등하게 작성해야 합니다.
+ */
+@Component
+public class KeyOrderedRecordProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedRecordProcessor.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 동시에 실행 중인 핸들러 수 제한 (다운스트림 벌크헤드 한도보다 작게 유지)
+    private final Semaphore inFlight;
+
+    public KeyOrderedRecordProcessor(
+            @Value("${app.kafka.consumer.key-ordered.max-in-flight:16}") int maxInFlight) {
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    /**
+     * 배치의 레코드를 키별 순서를 지키며 병렬로 처리하고, 모든 처리가 끝날 때까지 대기합니다.
+     *
+     * @param records 처리할 레코드 배치
+     * @param handler 레코드 단위 처리 로직
+     * @throws BatchListenerFailedException 처리에 실패한 레코드가 있는 경우
+     */
+    public <K, V> void process(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        Map<Object, CompletableFuture<Void>> tails = new HashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<K, V> record : records) {
+            Object orderingKey = record.key() != null
+                    ? record.key()
+                    : new TopicPartition(record.topic(), record.partition());
+
+            // 같은 키의 마지막 작업 뒤에 연결하여 순서를 보장
+            CompletableFuture<Void> previous = tails.getOrDefault(orderingKey, CompletableFuture.completedFuture(null));
+            CompletableFuture<Void> current = previous.thenRunAsync(() -> runLimited(handler, record), executor);
+
+            tails.put(orderingKey, current);
+            futures.add(current);
+        }
+
+        // 성공/실패와 관계없이 배치 전체가 끝날 때까지 대기
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((result, ex) -> null)
+                .join();
+
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Void> future = futures.get(i);
+            if (future.isCompletedExceptionally()) {
+                ConsumerRecord<K, V> failed = records.get(i);
+                Throwable cause = unwrap(future.handle((result, ex) -> ex).join());
+                log.error("키 순서 병렬 처리 실패: topic={}, partition={}, offset={}, key={}",
+                        failed.topic(), failed.partition(), failed.offset(), failed.key());
+                throw new BatchListenerFailedException("레코드 처리 실패: " + cause.getMessage(), cause, failed);
+            }
+        }
+    }
+
+    private <K, V> void runLimited(Consumer<ConsumerRecord<K, V>> handler, ConsumerRecord<K, V> record) {
+        inFlight.acquireUninterruptibly();
+        try {
+            handler.accept(record);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.config.ReconfigurableProducerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 일반 Producer의 linger.ms와 batch.size를 관측된 레코드 크기와 전송률에 맞춰 자동 조정하는 컴포넌트
+ *
+ * 조정 규칙:
+ * - linger 구간 동안 모이는 레코드가 2건 미만이면 기다려도 배치가 채워지지 않으므로 linger를 줄여 지연을 낮춤
+ * - 그 외에 배치 채움률이 목표보다 낮으면 linger를 늘려 더 많은 레코드를 한 요청으로 묶음
+ * - batch.size는 (평균 레코드 크기 x 초당 레코드 수 x linger) 에 여유분을 더한 값으로 맞춤
+ * - 배치가 거의 가득 차면(90% 이상) batch.size를 늘림
+ *
+ * 변경 폭이 작으면 Producer를 재생성하지 않아 설정 변경으로 인한 비용을 줄입니다.
+ * 설정을 바꿀 때는 새 Producer로 교체하고 이전 Producer는 진행 중인 전송이 끝난 뒤 닫으므로,
+ * 조정 시점에 전송 중이던 요청이나 DLQ 전송이 실패하지 않습니다.
+ */
+@Component
+public class ProducerBatchTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerBatchTuner.class);
+
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+    private static final double HEADROOM = 1.5;
+    private static final double FULL_BATCH_RATIO = 0.9;
+    private static final double MIN_CHANGE_RATIO = 0.25;
+    private static final int BATCH_SIZE_ALIGNMENT = 1024;
+
+    private final ReconfigurableProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final boolean enabled;
+    private final int minLingerMs;
+    private final int maxLingerMs;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final double targetFillRatio;
+
+    // 최근 관측값 (actuator 노출용)
+    private volatile double recordSizeAvg = Double.NaN;
+    private volatile double recordSendRate = Double.NaN;
+    private volatile double batchSizeAvg = Double.NaN;
+    private volatile double batchFillRatio = Double.NaN;
+    private volatile long adjustments;
+    private volatile Instant lastAdjustedAt;
+
+    public ProducerBatchTuner(@Qualifier("producerFactory") ReconfigurableProducerFactory<String, String> producerFactory,
+                              @Qualifier("kafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.kafka.producer.tuning.enabled:true}") boolean enabled,
+                              @Value("${app.kafka.producer.tuning.min-linger-ms:1}") int minLingerMs,
+                              @Value("${app.kafka.producer.tuning.max-linger-ms:50}") int maxLingerMs,
+                              @Value("${app.kafka.producer.tuning.min-batch-size:16384}") int minBatchSize,
+                              @Value("${app.kafka.producer.tuning.max-batch-size:1048576}") int maxBatchSize,
+                              @Value("${app.kafka.producer.tuning.target-fill-ratio:0.5}") double targetFillRatio) {
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.minLingerMs = minLingerMs;
+        this.maxLingerMs = maxLingerMs;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetFillRatio = targetFillRatio;
+
+        Gauge.builder("kafka.producer.tuning.linger.ms", this, ProducerBatchTuner::currentLingerMs)
+                .description("현재 적용된 producer linger.ms")
+                .register(meterRegistry);
+        Gauge.builder("kafka.producer.tuning.batch.size", this, ProducerBatchTuner::currentBatchSize)
+                .description("현재 적용된 producer batch.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("kafka.producer.tuning.batch.fill.ratio", this, tuner -> tuner.batchFillRatio)
+                .description("평균 배치 크기 / batch.size")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 주기적으로 producer 메트릭을 읽어 linger.ms와 batch.size를 조정합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.kafka.producer.tuning.interval-ms:30000}",
+            initialDelayString = "${app.kafka.producer.tuning.interval-ms:30000}")
+    public void tune() {
+        Map<MetricName, ? extends Metric> metrics = kafkaTemplate.metrics();
+        recordSizeAvg = metricValue(metrics, "record-size-avg");
+        recordSendRate = metricValue(metrics, "record-send-rate");
+        batchSizeAvg = metricValue(metrics, "batch-size-avg");
+
+        int lingerMs = currentLingerMs();
+        int batchSize = currentBatchSize();
+        batchFillRatio = Double.isNaN(batchSizeAvg) ? Double.NaN : batchSizeAvg / batchSize;
+
+        if (!enabled || Double.isNaN(recordSizeAvg) || Double.isNaN(recordSendRate) || recordSendRate <= 0) {
+            // 전송이 없는 구간에서는 조정하지 않음
+            return;
+        }
+
+        int newLingerMs = lingerMs;
+        double recordsPerLinger = recordSendRate * lingerMs / 1000.0;
+        if (recordsPerLinger < 2) {
+            newLingerMs = Math.max(minLingerMs, lingerMs / 2);
+        } else if (batchFillRatio < targetFillRatio) {
+            newLingerMs = Math.min(maxLingerMs, Math.max(lingerMs * 2, minLingerMs));
+        }
+
+        double expectedBytes = recordSizeAvg * recordSendRate * newLingerMs / 1000.0 * HEADROOM;
+        int newBatchSize = clamp(align(expectedBytes), minBatchSize, maxBatchSize);
+        if (batchFillRatio > FULL_BATCH_RATIO) {
+            newBatchSize = Math.max(newBatchSize, Math.min(maxBatchSize, batchSize * 2));
+        }
+
+        if (significant(lingerMs, newLingerMs) || significant(batchSize, newBatchSize)) {
+            log.info("Producer 배치 설정 조정: linger.ms {} -> {}, batch.size {} -> {} " +
+                            "(레코드 크기 평균={}B, 전송률={}/s, 배치 채움률={})",
+                    lingerMs, newLingerMs, batchSize, newBatchSize,
+                    Math.round(recordSizeAvg), Math.round(recordSendRate),
+                    String.format("%.2f", batchFillRatio));
+
+            Map<String, Object> updates = new LinkedHashMap<>();
+            updates.put(ProducerConfig.LINGER_MS_CONFIG, newLingerMs);
+            updates.put(ProducerConfig.BATCH_SIZE_CONFIG, newBatchSize);
+            // 새 설정의 Producer로 교체하고, 이전 Producer는 진행 중인 전송이 끝난 뒤 닫음 (남은 배치는 close 시 flush)
+            producerFactory.reconfigure(updates);
+
+            adjustments++;
+            lastAdjustedAt = Instant.now();
+        }
+    }
+
+    /**
+     * 현재 설정과 최근 관측값 스냅샷
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> config = producerFactory.getConfigurationProperties();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("tuningEnabled", enabled);
+        snapshot.put("lingerMs", currentLingerMs());
+        snapshot.put("batchSize", currentBatchSize());
+        snapshot.put("compressionType", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        snapshot.put("bufferMemory", config.get(ProducerConfig.BUFFER_MEMORY_CONFIG));
+        snapshot.put("recordSizeAvg", recordSizeAvg);
+        snapshot.put("recordSendRate", recordSendRate);
+        snapshot.put("batchSizeAvg", batchSizeAvg);
+        snapshot.put("batchFillRatio", batchFillRatio);
+        snapshot.put("adjustments", adjustments);
+        snapshot.put("lastAdjustedAt", lastAdjustedAt);
+        return snapshot;
+    }
+
+    private int currentLingerMs() {
+        return intConfig(ProducerConfig.LINGER_MS_CONFIG, 0);
+    }
+
+    private int currentBatchSize() {
+        return intConfig(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
+    }
+
+    private int intConfig(String name, int defaultValue) {
+        Object value = producerFactory.getConfigurationProperties().get(name);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    private static double metricValue(Map<MetricName, ? extends Metric> metrics, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+            MetricName metricName = entry.getKey();
+            if (PRODUCER_METRICS_GROUP.equals(metricName.group()) && name.equals(metricName.name())) {
+                Object value = entry.getValue().metricValue();
+                if (value instanceof Number number) {
+                    double result = number.doubleValue();
+                    return Double.isInfinite(result) ? Double.NaN : result;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static boolean significant(int current, int proposed) {
+        return current == 0 ? proposed != 0 : Math.abs(proposed - current) / (double) current >= MIN_CHANGE_RATIO;
+    }
+
+    private static int align(double bytes) {
+        long aligned = ((long) Math.ceil(bytes / BATCH_SIZE_ALIGNMENT)) * BATCH_SIZE_ALIGNMENT;
+        return (int) Math.min(Integer.MAX_VALUE, aligned);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.kafkabasic.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
@@ -7,25 +12,62 @@ import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ProducerService {
+    private static final Logger log = LoggerFactory.getLogger(ProducerService.class);
+
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // 메시지별 콘솔 출력 대신 전송 결과를 집계하는 카운터
+    private final Counter sentCounter;
+    private final Counter failedCounter;
 
-    public ProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public ProducerService(KafkaTemplate<String, String> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.sentCounter = Counter.builder("kafka.producer.messages")
+                .description("ProducerService 전송 결과")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("kafka.producer.messages")
+                .description("ProducerService 전송 결과")
+                .tag("result", "failure")
+                .register(meterRegistry);
     }
 
-    public void sendMessage(String topic, String message) {
+    /**
+     * 메시지를 전송하고 브로커 응답(ack) 시 완료되는 future를 반환합니다.
+     * 버퍼가 가득 차 max.block.ms 안에 전송하지 못하는 등 send 호출 자체가 실패해도 예외 대신 실패한 future를 반환합니다.
+     */
+    public CompletableFuture<SendResult<String, String>> sendMessage(String topic, String message) {
+        // send 호출부터 브로커 응답(ack)까지의 시간 (배치 대기 linger.ms 포함)
+        Timer.Sample sample = Timer.start(meterRegistry);
+
         // Spring Boot 3.x에서는 CompletableFuture를 반환
-        CompletableFuture<SendResult<String, String>> future =
-                kafkaTemplate.send(topic, message);
+        CompletableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(topic, message);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
 
         // CompletableFuture의 whenComplete 메서드 사용
-        future.whenComplete((result, ex) -> {
+        return future.whenComplete((result, ex) -> {
+            sample.stop(ackTimer(topic, ex == null ? "success" : "failure"));
             if (ex == null) {
-                System.out.println("Sent: " + message +
-                        " with offset: " + result.getRecordMetadata().offset());
+                sentCounter.increment();
             } else {
-                System.err.println("Failed to send message: " + ex.getMessage());
+                failedCounter.increment();
+                log.warn("메시지 전송 실패: topic={}, error={}", topic, ex.getMessage());
             }
         });
     }
-}
\ No newline at end of file
+
+    private Timer ackTimer(String topic, String result) {
+        return Timer.builder("kafka.producer.send.ack")
+                .description("ProducerService 전송부터 브로커 응답까지의 시간")
+                .tag("topic", topic)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
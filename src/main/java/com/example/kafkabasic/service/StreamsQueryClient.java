@@ -0,0 +1,92 @@
+package com.example.kafkabasic.service;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 다른 애플리케이션 인스턴스의 내부 조회 API(/internal/streams)를 호출하는 클라이언트
+ *
+ * 키를 소유한 인스턴스에서 로컬 상태 저장소 조회 결과만 받아오며, 요청을 다시 라우팅하지 않습니다.
+ */
+@Component
+public class StreamsQueryClient {
+
+    private static final ParameterizedTypeReference<Map<String, Long>> COUNTS_TYPE = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> TOP_WORDS_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private static final ParameterizedTypeReference<List<TrendingWordsQueryService.WindowCount>> HISTORY_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private final RestClient restClient;
+
+    public StreamsQueryClient(RestClient.Builder restClientBuilder,
+                              @Value("${app.kafka.streams.query.remote-timeout-ms:2000}") long remoteTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(remoteTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(remoteTimeoutMs));
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    /**
+     * 원격 인스턴스의 로컬 counts 저장소에서 단어 출현 횟수를 조회합니다.
+     * 원격 인스턴스가 해당 파티션을 갖고 있지 않으면 503으로 응답합니다.
+     *
+     * @param partitions 단어별 counts 저장소 파티션
+     * @param stale true면 스탠바이 복제본 등 최신이 아닐 수 있는 저장소도 조회
+     */
+    public Map<String, Long> counts(HostInfo host, Map<String, Integer> partitions, boolean stale) {
+        Map<String, Long> counts = restClient.post()
+                .uri("http://{host}:{port}/internal/streams/word-count/counts?stale={stale}", host.host(), host.port(), stale)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(partitions)
+                .retrieve()
+                .body(COUNTS_TYPE);
+        return counts != null ? counts : Map.of();
+    }
+
+    /**
+     * 원격 인스턴스가 보유한 태스크들의 상위 단어를 조회합니다.
+     */
+    public List<KeyValue<String, Long>> topWords(HostInfo host, int k) {
+        List<Map<String, Object>> words = restClient.get()
+                .uri("http://{host}:{port}/internal/streams/word-count/top?k={k}", host.host(), host.port(), k)
+                .retrieve()
+                .body(TOP_WORDS_TYPE);
+        if (words == null) {
+            return List.of();
+        }
+        return words.stream()
+                .map(word -> KeyValue.pair((String) word.get("word"), ((Number) word.get("count")).longValue()))
+                .toList();
+    }
+
+    /**
+     * 원격 인스턴스의 로컬 윈도우 저장소에서 단어의 윈도우별 출현 횟수를 조회합니다.
+     *
+     * @param partition 단어가 속한 윈도우 저장소 파티션
+     */
+    public List<TrendingWordsQueryService.WindowCount> wordHistory(HostInfo host, String word, int partition,
+                                                                   TrendingWordsQueryService.WindowType window,
+                                                                   Instant from, Instant to) {
+        List<TrendingWordsQueryService.WindowCount> windows = restClient.get()
+                .uri("http://{host}:{port}/internal/streams/trending-words/{word}/history?partition={partition}&window={window}&from={from}&to={to}",
+                        host.host(), host.port(), word, partition, window.name().toLowerCase(Locale.ROOT), from, to)
+                .retrieve()
+                .body(HISTORY_TYPE);
+        return windows != null ? windows : List.of();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.kafkabasic.service;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 토픽 파티션 오프셋과 메시지 수 조회 서비스
+ *
+ * 파티션 목록은 클러스터 메타데이터 스냅샷에서 읽고, 조회할 모든 토픽의 모든 파티션에 대해
+ * 시작 오프셋과 끝 오프셋을 각각 한 번의 listOffsets 요청으로 묻습니다.
+ * (토픽마다 describeTopics + listOffsets 두 번을 호출하던 방식은 토픽 N개에 3N번의 요청이 필요했음)
+ */
+@Service
+public class TopicOffsetService {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicOffsetService.class);
+
+    private final AdminClient adminClient;
+    private final ClusterMetadataCache clusterMetadataCache;
+    private final long requestTimeoutMs;
+
+    public TopicOffsetService(AdminClient adminClient,
+                              ClusterMetadataCache clusterMetadataCache,
+                              @Value("${app.kafka.admin.metadata.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.adminClient = adminClient;
+        this.clusterMetadataCache = clusterMetadataCache;
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    /**
+     * 파티션 하나의 오프셋 범위
+     *
+     * @param partition 파티션 번호
+     * @param earliest 시작 오프셋 (보존 기간이 지나 삭제된 메시지 이후)
+     * @param latest 끝 오프셋 (다음에 기록될 메시지의 오프셋)
+     */
+    public record PartitionOffsets(int partition, long earliest, long latest) {
+
+        /**
+         * 파티션의 메시지 수 추정치 (압축 토픽이나 트랜잭션 마커가 있으면 실제보다 클 수 있음)
+         */
+        public long messages() {
+            return latest - earliest;
+        }
+    }
+
+    /**
+     * 토픽 하나의 파티션별 오프셋
+     *
+     * @param topic 토픽 이름
+     * @param partitions 조회에 성공한 파티션의 오프셋 (파티션 번호순)
+     * @param unavailablePartitions 조회에 실패한 파티션 번호 (리더 없음, 스냅샷 이후 삭제 등)
+     */
+    public record TopicOffsets(String topic, List<PartitionOffsets> partitions, List<Integer> unavailablePartitions) {
+
+        public long totalMessages() {
+            return partitions.stream().mapToLong(PartitionOffsets::messages).sum();
+        }
+    }
+
+    /**
+     * 진행 중인 오프셋 조회
+     *
+     * 시작/끝 오프셋 요청은 생성 시점에 이미 전송되어 있으며,
+     * await()는 해당 토픽의 파티션 결과만 기다리므로 먼저 도착한 토픽부터 순서대로 응답에 쓸 수 있습니다.
+     */
+    public final class OffsetQuery {
+
+        private final Map<String, List<TopicPartition>> partitionsByTopic;
+        private final List<String> unknownTopics;
+        private final ListOffsetsResult earliest;
+        private final ListOffsetsResult latest;
+        private final long deadlineNanos;
+
+        private OffsetQuery(Map<String, List<TopicPartition>> partitionsByTopic, List<String> unknownTopics) {
+            this.partitionsByTopic = partitionsByTopic;
+            this.unknownTopics = unknownTopics;
+
+            Map<TopicPartition, OffsetSpec> earliestSpecs = new HashMap<>();
+            Map<TopicPartition, OffsetSpec> latestSpecs = new HashMap<>();
+            partitionsByTopic.values().forEach(partitions -> partitions.forEach(partition -> {
+                earliestSpecs.put(partition, OffsetSpec.earliest());
+                latestSpecs.put(partition, OffsetSpec.latest());
+            }));
+            // 두 요청을 동시에 보냄 (AdminClient가 파티션 리더 브로커별로 묶어서 전송)
+            this.earliest = adminClient.listOffsets(earliestSpecs);
+            this.latest = adminClient.listOffsets(latestSpecs);
+            this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs);
+        }
+
+        /**
+         * 조회 대상 토픽 이름 (이름순)
+         */
+        public Collection<String> topics() {
+            return partitionsByTopic.keySet();
+        }
+
+        /**
+         * 메타데이터 스냅샷에 없어 조회하지 않은 토픽 이름
+         */
+        public List<String> unknownTopics() {
+            return unknownTopics;
+        }
+
+        /**
+         * 토픽의 파티션별 오프셋을 기다려 반환합니다.
+         * 일부 파티션 조회에 실패하면 해당 파티션만 unavailablePartitions로 표시합니다.
+         */
+        public TopicOffsets await(String topic) throws InterruptedException {
+            List<PartitionOffsets> offsets = new ArrayList<>();
+            List<Integer> unavailable = new ArrayList<>();
+            for (TopicPartition partition : partitionsByTopic.getOrDefault(topic, List.of())) {
+                try {
+                    long earliestOffset = get(earliest, partition);
+                    long latestOffset = get(latest, partition);
+                    offsets.add(new PartitionOffsets(partition.partition(), earliestOffset, latestOffset));
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("파티션 오프셋 조회 실패: partition={}, error={}", partition, e.getMessage());
+                    unavailable.add(partition.partition());
+                }
+            }
+            return new TopicOffsets(topic, offsets, unavailable);
+        }
+
+        private long get(ListOffsetsResult result, TopicPartition partition)
+                throws ExecutionException, InterruptedException, TimeoutException {
+            long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+            return result.partitionResult(partition).get(remainingNanos, TimeUnit.NANOSECONDS).offset();
+        }
+    }
+
+    /**
+     * 토픽들의 시작/끝 오프셋 조회를 시작합니다.
+     *
+     * @param topics 조회할 토픽 이름 (비어 있으면 내부 토픽을 제외한 전체 토픽)
+     * @throws IllegalStateException 클러스터 메타데이터를 아직 한 번도 조회하지 못한 경우
+     */
+    public OffsetQuery query(Collection<String> topics) {
+        ClusterMetadataCache.ClusterMetadata metadata = clusterMetadataCache.snapshot();
+        if (metadata == null) {
+            throw new IllegalStateException("클러스터 메타데이터를 아직 조회하지 못했습니다.");
+        }
+        Collection<String> names = topics == null || topics.isEmpty()
+                ? clusterMetadataCache.userTopics()
+                : topics.stream().distinct().sorted().toList();
+
+        Map<String, List<TopicPartition>> partitionsByTopic = new LinkedHashMap<>();
+        List<String> unknownTopics = new ArrayList<>();
+        for (String name : names) {
+            TopicDescription description = metadata.topics().get(name);
+            if (description == null) {
+                unknownTopics.add(name);
+                continue;
+            }
+            List<TopicPartition> partitions = new ArrayList<>(description.partitions().size());
+            for (TopicPartitionInfo partitionInfo : description.partitions()) {
+                partitions.add(new TopicPartition(name, partitionInfo.partition()));
+            }
+            partitionsByTopic.put(name, partitions);
+        }
+        return new OffsetQuery(partitionsByTopic, unknownTopics);
+    }
+
+    /**
+     * 토픽들의 파티션별 오프셋을 모두 기다려 반환합니다. (스냅샷에 없는 토픽은 제외)
+     *
+     * @param topics 조회할 토픽 이름 (비어 있으면 내부 토픽을 제외한 전체 토픽)
+     * @return 토픽 이름 -> 오프셋 (이름순)
+     */
+    public Map<String, TopicOffsets> offsets(Collection<String> topics) throws InterruptedException {
+        OffsetQuery query = query(topics);
+        Map<String, TopicOffsets> offsets = new LinkedHashMap<>();
+        for (String topic : query.topics()) {
+            offsets.put(topic, query.await(topic));
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.config.RetryTopics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * transaction-topic 의 exactly-once consume-transform-produce 파이프라인
+ *
+ * 리스너 컨테이너가 시작한 트랜잭션 안에서 배치의 모든 레코드를 변환하여 transaction-processed 토픽으로 전송하고,
+ * 소비한 오프셋은 컨테이너가 같은 트랜잭션으로 커밋합니다. 배치 단위로 커밋하므로 메시지마다 커밋하는 것보다 훨씬 빠릅니다.
+ * 변환할 수 없는 메시지는 같은 트랜잭션 안에서 transaction-topic.DLQ 로 보내 배치 전체가 롤백되지 않도록 합니다.
+ * 전송 중 예외가 발생하면 실패한 레코드를 에러 핸들러에 알려 재시도 후 DLQ로 보냅니다.
+ *
+ * 트랜잭션 크기별 처리량(records/s)을 집계하여 /actuator/exactlyonce 로 보여줍니다.
+ */
+@Service
+public class TransactionPipelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPipelineService.class);
+
+    public static final String INPUT_TOPIC = "transaction-topic";
+    public static final String OUTPUT_TOPIC = "transaction-processed";
+    private static final String DLQ_TOPIC = INPUT_TOPIC + RetryTopics.DLQ_SUFFIX;
+
+    private final TransactionalProducerService transactionalProducerService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DistributionSummary transactionSizeSummary;
+    private final Timer transactionTimer;
+
+    // 트랜잭션 크기 구간(2의 거듭제곱) 별 처리량 집계
+    private final Map<Integer, SizeBucket> buckets = new ConcurrentSkipListMap<>();
+
+    public TransactionPipelineService(TransactionalProducerService transactionalProducerService,
+                                      MeterRegistry meterRegistry) {
+        this.transactionalProducerService = transactionalProducerService;
+        this.transactionSizeSummary = DistributionSummary.builder("kafka.eos.transaction.size")
+                .description("exactly-once 트랜잭션당 레코드 수")
+                .register(meterRegistry);
+        this.transactionTimer = Timer.builder("kafka.eos.transaction.duration")
+                .description("배치 처리 시작부터 트랜잭션 커밋 완료까지의 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 컨테이너 트랜잭션 안에서 배치를 변환하여 전송합니다.
+     */
+    public void process(List<ConsumerRecord<String, String>> records) {
+        long start = System.nanoTime();
+        int size = records.size();
+
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                String transformed = transform(record);
+                if (transformed != null) {
+                    transactionalProducerService.sendInCurrentTransaction(OUTPUT_TOPIC, record.key(), transformed);
+                } else {
+                    log.warn("변환할 수 없는 트랜잭션 메시지를 DLQ로 전송: partition={}, offset={}",
+                            record.partition(), record.offset());
+                    transactionalProducerService.sendInCurrentTransaction(DLQ_TOPIC, record.key(), record.value());
+                }
+            } catch (RuntimeException e) {
+                // 실패한 레코드를 알려 에러 핸들러가 이전 레코드는 커밋하고 이 레코드만 재시도/DLQ 처리하도록 함
+                throw new BatchListenerFailedException("트랜잭션 메시지 처리 실패", e, record);
+            }
+        }
+
+        transactionalProducerService.onCurrentTransactionCommit(() -> recordCommitted(size, System.nanoTime() - start));
+    }
+
+    /**
+     * 트랜잭션 메시지를 처리 정보가 포함된 JSON으로 변환합니다.
+     * 빈 메시지는 변환하지 않고 null을 반환합니다.
+     */
+    private String transform(ConsumerRecord<String, String> record) {
+        String value = record.value();
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("payload", value.trim());
+        node.put("sourceTopic", record.topic());
+        node.put("sourcePartition", record.partition());
+        node.put("sourceOffset", record.offset());
+        node.put("processedAt", Instant.now().toString());
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void recordCommitted(int size, long elapsedNanos) {
+        transactionSizeSummary.record(size);
+        transactionTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        buckets.computeIfAbsent(Integer.highestOneBit(Math.max(size, 1)), SizeBucket::new).add(size, elapsedNanos);
+    }
+
+    /**
+     * 트랜잭션 크기 구간별 처리량 보고서
+     */
+    public List<Map<String, Object>> throughputBySize() {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (SizeBucket bucket : buckets.values()) {
+            report.add(bucket.toMap());
+        }
+        return report;
+    }
+
+    private static final class SizeBucket {
+
+        private final int lowerBound;
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder records = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private SizeBucket(int lowerBound) {
+            this.lowerBound = lowerBound;
+        }
+
+        private void add(int size, long elapsedNanos) {
+            transactions.increment();
+            records.add(size);
+            nanos.add(elapsedNanos);
+        }
+
+        private Map<String, Object> toMap() {
+            long txCount = transactions.sum();
+            long recordCount = records.sum();
+            double seconds = nanos.sum() / 1_000_000_000.0;
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("transactionSize", lowerBound + "-" + (lowerBound * 2L - 1));
+            map.put("transactions", txCount);
+            map.put("records", recordCount);
+            map.put("avgTransactionMs", txCount == 0 ? 0.0 : seconds * 1000 / txCount);
+            map.put("recordsPerSecond", seconds == 0 ? 0.0 : recordCount / seconds);
+            return map;
+        }
+    }
+}
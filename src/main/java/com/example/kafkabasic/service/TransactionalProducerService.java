@@ -1,65 +1,180 @@
-
 package com.example.kafkabasic.service;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * 트랜잭션 메시지 전송 서비스
+ *
+ * 트랜잭션용 ProducerFactory는 트랜잭션마다 캐시된 Producer(tx-producer-0, tx-producer-1, ...)를 꺼내 쓰므로
+ * 동시에 들어온 요청은 서로 다른 Producer로 병렬 처리됩니다.
+ * 동시에 열 수 있는 트랜잭션 수는 설정된 풀 크기로 제한하여 Producer와 브로커 측 트랜잭션 ID가 무한히 늘어나지 않도록 합니다.
+ *
+ * 메트릭:
+ * - kafka.transaction.pool.wait: Producer 풀에서 차례를 기다린 시간
+ * - kafka.transaction.commit: 트랜잭션 커밋 소요 시간
+ * - kafka.transaction.pool.active: 사용 중인 트랜잭션 Producer 수
+ */
 @Service
 public class TransactionalProducerService {
 
+    private static final Logger log = LoggerFactory.getLogger(TransactionalProducerService.class);
+
     private final KafkaTemplate<String, String> transactionalKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int poolSize;
+    private final long acquireTimeoutMs;
+    private final Semaphore producerPermits;
 
-    public TransactionalProducerService(@Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, String> transactionalKafkaTemplate) {
+    private final Timer poolWaitTimer;
+    private final Timer commitTimer;
+
+    public TransactionalProducerService(@Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, String> transactionalKafkaTemplate,
+                                        KafkaTransactionManager<String, String> kafkaTransactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.kafka.transactional.pool-size:8}") int poolSize,
+                                        @Value("${app.kafka.transactional.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
         this.transactionalKafkaTemplate = transactionalKafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(kafkaTransactionManager);
+        this.poolSize = Math.max(1, poolSize);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.producerPermits = new Semaphore(this.poolSize, true);
+
+        this.poolWaitTimer = Timer.builder("kafka.transaction.pool.wait")
+                .description("트랜잭션 Producer 풀 대기 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("kafka.transaction.commit")
+                .description("트랜잭션 커밋 소요 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("kafka.transaction.pool.active", producerPermits,
+                        permits -> this.poolSize - permits.availablePermits())
+                .description("사용 중인 트랜잭션 Producer 수")
+                .register(meterRegistry);
     }
 
-    @Transactional("kafkaTransactionManager")
     public boolean sendMessagesInTransaction(String topic, List<String> messages) {
         try {
-            for (String message : messages) {
-                CompletableFuture<SendResult<String, String>> future =
-                        transactionalKafkaTemplate.send(topic, message);
-
-                future.whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        System.out.println("Sent in transaction: " + message +
-                                " with offset: " + result.getRecordMetadata().offset());
-                    } else {
-                        System.err.println("Failed to send message in transaction: " + ex.getMessage());
-                        throw new RuntimeException("Message sending failed", ex);
-                    }
-                });
-            }
-            System.out.println("Transaction committed successfully for " + messages.size() + " messages");
-            return true;
-        } catch (Exception e) {
-            System.err.println("Transaction failed and rolled back: " + e.getMessage());
+            return executeInPooledTransaction(() -> {
+                for (String message : messages) {
+                    transactionalKafkaTemplate.send(topic, message);
+                    log.debug("Sent in transaction: {}", message);
+                }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.error("Transaction failed and rolled back: {}", e.getMessage());
             throw e; // 트랜잭션 롤백을 위해 예외 재발생
         }
     }
 
-    @Transactional("kafkaTransactionManager")
     public boolean simulateTransactionFailure(String topic, List<String> messages, int failAfter) {
         try {
-            for (int i = 0; i < messages.size(); i++) {
-                if (i == failAfter) {
-                    System.out.println("Simulating failure after " + failAfter + " messages");
-                    throw new RuntimeException("Simulated failure");
+            return executeInPooledTransaction(() -> {
+                for (int i = 0; i < messages.size(); i++) {
+                    if (i == failAfter) {
+                        log.info("Simulating failure after {} messages", failAfter);
+                        throw new RuntimeException("Simulated failure");
+                    }
+
+                    String message = messages.get(i);
+                    transactionalKafkaTemplate.send(topic, message);
+                    log.info("Sent message {}: {}", i + 1, message);
                 }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Transaction failed and rolled back as expected: {}", e.getMessage());
+            throw e; // 트랜잭션 롤백
+        }
+    }
+
+    /**
+     * 이미 진행 중인 Kafka 트랜잭션(예: 리스너 컨테이너가 시작한 트랜잭션)에 참여하여 메시지를 전송합니다.
+     * 컨테이너 트랜잭션은 소비한 오프셋을 같은 트랜잭션으로 커밋하므로 consume-transform-produce가 exactly-once로 처리됩니다.
+     */
+    public void sendInCurrentTransaction(String topic, String key, String message) {
+        if (!transactionalKafkaTemplate.inTransaction()) {
+            throw new IllegalStateException("진행 중인 Kafka 트랜잭션이 없습니다.");
+        }
+        transactionalKafkaTemplate.send(topic, key, message);
+    }
 
-                String message = messages.get(i);
-                transactionalKafkaTemplate.send(topic, message);
-                System.out.println("Sent message " + (i + 1) + ": " + message);
+    /**
+     * 현재 트랜잭션의 커밋 소요 시간을 기록하고, 커밋이 완료되면 콜백을 실행하도록 등록합니다.
+     */
+    public void onCurrentTransactionCommit(Runnable callback) {
+        TransactionSynchronizationManager.registerSynchronization(new CommitTimingSynchronization());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                callback.run();
             }
-            return true;
-        } catch (Exception e) {
-            System.err.println("Transaction failed and rolled back as expected: " + e.getMessage());
-            throw e; // 트랜잭션 롤백
+        });
+    }
+
+    /**
+     * 풀에서 트랜잭션 Producer 차례를 얻은 뒤 Kafka 트랜잭션 안에서 작업을 실행합니다.
+     * 작업이 예외를 던지면 트랜잭션은 롤백되고 예외가 그대로 전파됩니다.
+     */
+    private <T> T executeInPooledTransaction(Supplier<T> work) {
+        long waitStart = System.nanoTime();
+        try {
+            if (!producerPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("트랜잭션 Producer 풀 대기 시간 초과 (" + acquireTimeoutMs + "ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("트랜잭션 Producer 대기 중 인터럽트 발생", e);
+        } finally {
+            poolWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            T result = transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new CommitTimingSynchronization());
+                return work.get();
+            });
+            log.info("Transaction committed successfully");
+            return result;
+        } finally {
+            producerPermits.release();
+        }
+    }
+
+    /**
+     * 커밋 직전부터 커밋 완료까지의 시간을 측정하는 트랜잭션 동기화
+     */
+    private class CommitTimingSynchronization implements TransactionSynchronization {
+
+        private long commitStart;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commitStart = System.nanoTime();
+        }
+
+        @Override
+        public void afterCommit() {
+            commitTimer.record(System.nanoTime() - commitStart, TimeUnit.NANOSECONDS);
         }
     }
-}
\ No newline at end of file
+}
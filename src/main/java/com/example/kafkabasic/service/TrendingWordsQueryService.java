@@ -0,0 +1,177 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.config.KafkaStreamsConfig;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import com.example.kafkabasic.streams.TrendingWordsStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인기 단어 윈도우 저장소(trending-words-tumbling/hopping) 조회 서비스
+ *
+ * 단어 하나의 윈도우별 출현 횟수를 시간 범위로 조회합니다.
+ * 단어를 소유한 인스턴스가 다르면 WordCountQueryService와 같은 방식으로 내부 조회 API로 전달합니다.
+ * 저장소 핸들은 단어가 속한 파티션별로 얻어 캐시하며(이 인스턴스에 없는 파티션이면 빈 결과 대신 예외), 파이프라인 상태가 바뀌면 무효화합니다.
+ */
+@Service
+public class TrendingWordsQueryService {
+
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final StreamsQueryClient queryClient;
+    private final MeterRegistry meterRegistry;
+    private final long windowSizeMs;
+
+    // 이 인스턴스의 application.server 주소
+    private final HostInfo selfHost;
+
+    // 윈도우 종류와 파티션별로 캐시된 저장소 핸들 (파이프라인 상태 변경 시 무효화)
+    private final Map<StoreKey, ReadOnlyWindowStore<String, Long>> stores = new ConcurrentHashMap<>();
+
+    public TrendingWordsQueryService(StreamsPipelineRegistry pipelineRegistry,
+                                     StreamsQueryClient queryClient,
+                                     MeterRegistry meterRegistry,
+                                     TrendingWordsStream trendingWordsStream,
+                                     @Value("${app.kafka.streams.application-server:localhost:${server.port:8080}}") String applicationServer) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.queryClient = queryClient;
+        this.meterRegistry = meterRegistry;
+        this.windowSizeMs = trendingWordsStream.windowSize().toMillis();
+        this.selfHost = HostInfo.buildFromEndpoint(applicationServer);
+        pipelineRegistry.addStateListener(KafkaStreamsConfig.TRENDING_WORDS, (newState, oldState) -> stores.clear());
+    }
+
+    /**
+     * 윈도우 종류
+     */
+    public enum WindowType {
+        TUMBLING(TrendingWordsStream.TUMBLING_STORE),
+        HOPPING(TrendingWordsStream.HOPPING_STORE);
+
+        private final String storeName;
+
+        WindowType(String storeName) {
+            this.storeName = storeName;
+        }
+
+        public static WindowType from(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("window는 tumbling 또는 hopping이어야 합니다: " + value);
+            }
+        }
+    }
+
+    /**
+     * 윈도우 하나의 출현 횟수 (start 이상 end 미만, epoch ms)
+     */
+    public record WindowCount(long start, long end, long count) {
+    }
+
+    /**
+     * 시작 시각이 from 이상 to 이하인 윈도우들의 단어 출현 횟수를 시간순으로 조회합니다.
+     * 다른 인스턴스가 소유한 단어는 해당 인스턴스로 전달하여 조회하며,
+     * 소유 인스턴스를 알 수 없거나 조회할 수 없으면 InvalidStateStoreException을 던집니다.
+     */
+    public List<WindowCount> history(String word, WindowType window, Instant from, Instant to) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            KeyQueryMetadata metadata = ownerMetadata(window, word);
+            HostInfo owner = metadata.activeHost();
+            if (owner.equals(selfHost)) {
+                return getLocalHistory(word, metadata.partition(), window, from, to);
+            }
+            try {
+                return queryClient.wordHistory(owner, word, metadata.partition(), window, from, to);
+            } catch (RestClientException e) {
+                throw new InvalidStateStoreException("인스턴스 " + owner + " 조회 실패: " + e.getMessage(), e);
+            }
+        } finally {
+            sample.stop(Timer.builder("kafka.streams.query")
+                    .description("단어 수 상태 저장소 조회 지연 시간")
+                    .tag("type", "history")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 이 인스턴스의 로컬 윈도우 저장소만 조회합니다. (내부 조회 API용, 다시 라우팅하지 않음)
+     * 호출한 쪽이 찾은 파티션의 저장소만 조회하므로, 이 인스턴스에 그 파티션이 없으면 InvalidStateStoreException이 발생합니다.
+     *
+     * @param partition 단어가 속한 윈도우 저장소 파티션
+     */
+    public List<WindowCount> getLocalHistory(String word, int partition, WindowType window, Instant from, Instant to) {
+        StoreKey key = new StoreKey(window, partition);
+        try {
+            return fetch(store(key), word, from, to);
+        } catch (InvalidStateStoreException e) {
+            // 리밸런싱 등으로 캐시된 핸들이 무효해졌으면 다시 얻어 한 번 재시도
+            stores.remove(key);
+            return fetch(store(key), word, from, to);
+        }
+    }
+
+    private List<WindowCount> fetch(ReadOnlyWindowStore<String, Long> store, String word, Instant from, Instant to) {
+        List<WindowCount> windows = new ArrayList<>();
+        try (WindowStoreIterator<Long> iterator = store.fetch(word, from, to)) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, Long> entry = iterator.next();
+                windows.add(new WindowCount(entry.key, entry.key + windowSizeMs, entry.value));
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * 단어의 활성 소유 인스턴스와 파티션 (메타데이터를 알 수 없는 리밸런싱 중에는 InvalidStateStoreException)
+     */
+    private KeyQueryMetadata ownerMetadata(WindowType window, String word) {
+        KeyQueryMetadata metadata = runningStreams().queryMetadataForKey(window.storeName, word, new StringSerializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)
+                || HostInfo.unavailable().equals(metadata.activeHost())) {
+            throw new InvalidStateStoreException("단어의 소유 인스턴스를 아직 알 수 없습니다. (리밸런싱 중): " + word);
+        }
+        return metadata;
+    }
+
+    private ReadOnlyWindowStore<String, Long> store(StoreKey key) {
+        return stores.computeIfAbsent(key, storeKey -> runningStreams().store(StoreQueryParameters
+                .fromNameAndType(storeKey.window().storeName, QueryableStoreTypes.<String, Long>windowStore())
+                .withPartition(storeKey.partition())));
+    }
+
+    /**
+     * 저장소 핸들 캐시 키
+     */
+    private record StoreKey(WindowType window, int partition) {
+    }
+
+    private KafkaStreams runningStreams() {
+        KafkaStreams kafkaStreams = pipelineRegistry.kafkaStreams(KafkaStreamsConfig.TRENDING_WORDS);
+        if (kafkaStreams == null) {
+            throw new IllegalStateException("인기 단어 파이프라인이 실행 중이 아닙니다.");
+        }
+        return kafkaStreams;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.kafkabasic.service;
+
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자 데이터 메시지 처리기 (Resilience4j 적용)
+ * "error"를 포함하는 메시지를 처리할 때 예외를 발생시켜 재시도 및 DLQ 메커니즘을 시연합니다.
+ * 리스너와 분리된 빈으로 두어, 가상 스레드에서 레코드 단위로 호출될 때도 Resilience4j AOP가 적용됩니다.
+ *
+ * 이 처리기는 다음과 같이 동작합니다:
+ * 1. "error"를 포함하는 메시지: RuntimeException 발생 -> 재시도 토픽(1s, 10s, 60s) -> DLQ로 전송
+ * 2. "invalid"를 포함하는 메시지: IllegalArgumentException 발생 -> 재시도 없이 바로 DLQ로 전송
+ * 3. 그 외 메시지: 정상 처리
+ *
+ * 재시도는 컨슈머 스레드를 멈추는 제자리 재시도 대신 재시도 토픽으로 처리하므로
+ * 예외는 폴백으로 삼키지 않고 그대로 전파하여 에러 핸들러가 다음 단계로 보내도록 합니다.
+ *
+ * Resilience4j 패턴 적용:
+ * - @CircuitBreaker: 50% 실패율에 서킷 오픈 (서킷이 열린 동안의 메시지도 재시도 토픽으로 이동)
+ * - @Bulkhead: 최대 20개의 동시 호출 허용
+ */
+@Component
+public class UserDataProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDataProcessor.class);
+
+    @CircuitBreaker(name = "kafkaConsumer")
+    @Bulkhead(name = "kafkaConsumer")
+    public void process(String message) {
+        log.info("사용자 데이터 토픽에서 메시지 수신: {}", message);
+
+        // "error"를 포함하는 메시지는 RuntimeException 발생 (재시도 토픽을 거쳐 DLQ로)
+        if (message.contains("error")) {
+            log.error("오류 메시지 감지: {}", message);
+            throw new RuntimeException("메시지 처리 중 오류 발생: " + message);
+        }
+
+        // "invalid"를 포함하는 메시지는 IllegalArgumentException 발생 (재시도 없이 바로 DLQ로)
+        if (message.contains("invalid")) {
+            log.error("유효하지 않은 메시지 감지: {}", message);
+            throw new IllegalArgumentException("유효하지 않은 메시지: " + message);
+        }
+
+        // 정상 메시지 처리
+        log.info("메시지 정상 처리 완료: {}", message);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.kafkabasic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 자주 조회되는 단어의 출현 횟수를 보관하는 LRU 니어 캐시
+ *
+ * 조회가 쓰기보다 훨씬 많은 인기 단어는 상태 저장소(RocksDB)까지 가지 않고 메모리에서 응답합니다.
+ * word-count-output 토픽의 갱신을 구독하여 캐시에 있는 단어의 값을 최신 갱신 값으로 덮어씁니다.
+ * (파이프라인 초기화 등으로 횟수가 줄어든 경우도 반영)
+ *
+ * 저장소 조회와 갱신 수신이 겹치면 조회한 값이 그 사이에 도착한 갱신보다 오래된 값일 수 있으므로,
+ * 조회 중인 단어(beginLoad ~ complete)에 도착한 갱신은 기록해 두었다가 조회 결과 대신 캐시에 넣습니다.
+ * 파이프라인 상태가 바뀌면(중지, 리밸런싱, 초기화) clear()로 비우며, 그 전에 시작한 조회 결과는 캐시에 넣지 않습니다.
+ */
+@Component
+public class WordCountNearCache {
+
+    private final boolean enabled;
+    private final Map<String, Long> entries;
+
+    // 저장소 조회 중인 단어와 조회 중에 도착한 최신 갱신 값 (entries와 같은 락으로 보호)
+    private final Map<String, PendingLoad> pendingLoads = new HashMap<>();
+
+    // clear() 호출 횟수 (이전 세대에 시작한 조회 결과는 캐시에 넣지 않음)
+    private long epoch;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public WordCountNearCache(
+            @Value("${app.kafka.streams.word-count.near-cache.enabled:true}") boolean enabled,
+            @Value("${app.kafka.streams.word-count.near-cache.max-size:10000}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        // 접근 순서 LinkedHashMap으로 가장 오래 조회되지 않은 단어부터 제거
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        this.hits = Counter.builder("kafka.streams.query.cache")
+                .description("단어 수 니어 캐시 조회 결과")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("kafka.streams.query.cache")
+                .description("단어 수 니어 캐시 조회 결과")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("kafka.streams.query.cache.size", this, WordCountNearCache::size)
+                .description("단어 수 니어 캐시에 보관 중인 단어 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 출현 횟수를 반환합니다. (없거나 캐시가 비활성화된 경우 null)
+     */
+    public Long get(String word) {
+        if (!enabled) {
+            return null;
+        }
+        Long count;
+        synchronized (entries) {
+            count = entries.get(word);
+        }
+        (count != null ? hits : misses).increment();
+        return count;
+    }
+
+    /**
+     * 캐시에 없는 단어를 상태 저장소에서 조회하기 전에 호출합니다.
+     * 반환한 표식을 조회가 끝나면 complete(), 실패하면 abort()에 넘겨야 합니다.
+     */
+    public Load beginLoad(String word) {
+        synchronized (entries) {
+            pendingLoads.computeIfAbsent(word, key -> new PendingLoad()).readers++;
+            return new Load(word, epoch);
+        }
+    }
+
+    /**
+     * 저장소에서 조회한 값을 캐시에 넣고 응답할 값을 반환합니다.
+     * 조회 중에 갱신이 도착했으면 조회한 값 대신 그 갱신 값을 사용합니다.
+     */
+    public long complete(Load load, long count) {
+        synchronized (entries) {
+            Long updated = release(load.word());
+            long latest = updated != null ? updated : count;
+            // 횟수가 0인 단어(아직 없는 단어)는 캐시하지 않음
+            if (enabled && load.epoch() == epoch && latest > 0) {
+                entries.put(load.word(), latest);
+            }
+            return latest;
+        }
+    }
+
+    /**
+     * 저장소 조회가 실패한 경우 조회 표식을 정리합니다.
+     */
+    public void abort(Load load) {
+        synchronized (entries) {
+            release(load.word());
+        }
+    }
+
+    /**
+     * 캐시를 비웁니다. (파이프라인 상태가 바뀌어 저장소 값이 달라질 수 있을 때 호출)
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            epoch++;
+        }
+    }
+
+    private Long release(String word) {
+        PendingLoad pending = pendingLoads.get(word);
+        if (pending == null) {
+            return null;
+        }
+        if (--pending.readers == 0) {
+            pendingLoads.remove(word);
+        }
+        return pending.latest;
+    }
+
+    /**
+     * word-count-output 갱신으로 캐시에 있는 단어를 최신 값으로 갱신합니다.
+     * 저장소 조회 중인 단어는 갱신 값을 기록해 두어 조회 결과보다 우선합니다.
+     * 인스턴스마다 모든 갱신을 받아야 하므로 인스턴스별 고유 그룹 ID를 사용하고, 오프셋은 커밋하지 않습니다.
+     * word-count-output은 exactly-once 파이프라인이 트랜잭션으로 쓰므로 커밋된 값만 읽습니다.
+     * (중단된 트랜잭션의 값이 캐시에 들어가 커밋되지 않은 횟수로 응답하지 않도록 함)
+     */
+    @KafkaListener(
+            id = "word-count-near-cache",
+            topics = "word-count-output",
+            groupId = "word-count-near-cache-${random.uuid}",
+            containerFactory = "nearCacheKafkaListenerContainerFactory",
+            autoStartup = "${app.kafka.streams.word-count.near-cache.enabled:true}",
+            properties = {
+                    "value.deserializer=org.apache.kafka.common.serialization.LongDeserializer",
+                    "auto.offset.reset=latest",
+                    "isolation.level=read_committed"
+            })
+    public void onCountUpdate(ConsumerRecord<String, Long> record) {
+        if (record.key() == null || record.value() == null) {
+            return;
+        }
+        synchronized (entries) {
+            PendingLoad pending = pendingLoads.get(record.key());
+            if (pending != null) {
+                pending.latest = record.value();
+            }
+            entries.computeIfPresent(record.key(), (word, cached) -> record.value());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 저장소 조회 표식 (조회를 시작한 단어와 캐시 세대)
+     */
+    public record Load(String word, long epoch) {
+    }
+
+    /**
+     * 한 단어에 대해 진행 중인 저장소 조회 수와 그동안 도착한 최신 갱신 값
+     */
+    private static final class PendingLoad {
+        private int readers;
+        private Long latest;
+    }
+}
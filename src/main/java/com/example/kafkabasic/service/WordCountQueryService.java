@@ -0,0 +1,625 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.config.KafkaStreamsConfig;
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import com.example.kafkabasic.streams.WordCountStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.TaskMetadata;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyDescription;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 단어 수 상태 저장소(counts) 조회 서비스
+ *
+ * 단어 여러 개를 한 번에 조회하는 multi-get과, 접두사/범위 스캔을 제공합니다.
+ * 스캔은 로컬 파티션별 저장소를 키 순서(UTF-8 바이트 순)로 k-way 병합하므로 결과 전체가 정렬되어 있으며,
+ * 마지막으로 반환한 키를 커서로 사용해 다음 페이지를 이어서 조회할 수 있습니다.
+ *
+ * 저장소 핸들은 조회마다 다시 얻지 않고 캐시하며, 파이프라인 상태가 바뀌면(리밸런싱, 재시작 등) 무효화합니다.
+ * 단건/다건 조회는 WordCountNearCache를 먼저 확인합니다.
+ *
+ * 인스턴스가 여러 개일 때 단건/다건 조회는 queryMetadataForKey로 키를 소유한 인스턴스를 찾아
+ * 내부 조회 API로 전달하고(상위 단어는 모든 인스턴스에 조회 후 병합), 스캔은 이 인스턴스의 로컬 파티션만 대상으로 합니다.
+ */
+@Service
+public class WordCountQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(WordCountQueryService.class);
+
+    private static final Serializer<String> KEY_SERIALIZER = new StringSerializer();
+
+    private final StreamsPipelineRegistry pipelineRegistry;
+    private final WordCountNearCache nearCache;
+    private final StreamsQueryClient queryClient;
+    private final MeterRegistry meterRegistry;
+
+    // 이 인스턴스의 application.server 주소 (키 소유 인스턴스가 자신인지 판단)
+    private final HostInfo selfHost;
+
+    // 여러 인스턴스로의 조회를 병렬로 보내기 위한 가상 스레드 실행기
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 캐시된 저장소 핸들 (파이프라인 상태 변경 시 무효화)
+    // 단건/다건 조회용 counts 핸들은 파티션별로 얻어, 이 인스턴스에 없는 파티션이면 0 대신 InvalidStateStoreException이 발생
+    private final Map<Integer, ReadOnlyKeyValueStore<String, Long>> countsStores = new ConcurrentHashMap<>();
+    private final Map<Integer, ReadOnlyKeyValueStore<String, Long>> staleCountsStores = new ConcurrentHashMap<>();
+    private volatile ReadOnlyKeyValueStore<String, Long> topKStore;
+    private volatile PartitionStores partitionStores;
+
+    // counts 저장소가 속한 서브토폴로지 번호 (토폴로지에서 한 번 찾아 둠)
+    private volatile Integer countsSubtopology;
+
+    public WordCountQueryService(StreamsPipelineRegistry pipelineRegistry,
+                                 WordCountNearCache nearCache,
+                                 StreamsQueryClient queryClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.kafka.streams.application-server:localhost:${server.port:8080}}") String applicationServer) {
+        this.pipelineRegistry = pipelineRegistry;
+        this.nearCache = nearCache;
+        this.queryClient = queryClient;
+        this.meterRegistry = meterRegistry;
+        this.selfHost = HostInfo.buildFromEndpoint(applicationServer);
+        pipelineRegistry.addStateListener(KafkaStreamsConfig.WORD_COUNT, (newState, oldState) -> invalidateStores());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 단어 하나의 출현 횟수를 조회합니다. (없는 단어는 0)
+     * 다른 인스턴스가 소유한 단어는 해당 인스턴스로 전달하여 조회합니다.
+     */
+    public long getCount(String word) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return lookup(List.of(word)).get(word);
+        } finally {
+            sample.stop(queryTimer("get"));
+        }
+    }
+
+    /**
+     * 여러 단어의 출현 횟수를 한 번에 조회합니다. (없는 단어는 0)
+     * 단어를 소유 인스턴스별로 묶어 병렬로 조회합니다.
+     */
+    public Map<String, Long> getCounts(List<String> words) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return lookup(words);
+        } finally {
+            sample.stop(queryTimer("multi-get"));
+        }
+    }
+
+    /**
+     * 이 인스턴스의 로컬 counts 저장소만 조회합니다. (내부 조회 API용, 다시 라우팅하지 않음)
+     * 단어마다 호출한 쪽이 queryMetadataForKey로 찾은 파티션의 저장소만 조회하므로,
+     * 이 인스턴스가 그 파티션을 갖고 있지 않으면(마이그레이션 등) 0이 아니라 InvalidStateStoreException이 발생합니다.
+     *
+     * @param partitions 단어별 counts 저장소 파티션
+     * @param stale true면 스탠바이 복제본과 복구 중인 저장소도 조회
+     */
+    public Map<String, Long> getLocalCounts(Map<String, Integer> partitions, boolean stale) {
+        return withStoreRetry(() -> {
+            Map<String, Long> result = new LinkedHashMap<>();
+            partitions.forEach((word, partition) -> {
+                Long count = countsStore(partition, stale).get(word);
+                result.put(word, count != null ? count : 0L);
+            });
+            return result;
+        });
+    }
+
+    /**
+     * 가장 많이 나온 단어 상위 k개를 횟수 내림차순으로 반환합니다.
+     * 상위 단어 저장소를 가진 모든 인스턴스에 병렬로 조회하여 병합합니다.
+     */
+    public List<KeyValue<String, Long>> topWords(int k) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Collection<StreamsMetadata> instances = runningStreams().streamsMetadataForStore(WordCountStream.TOP_K_STORE);
+            List<HostInfo> hosts = instances.stream().map(StreamsMetadata::hostInfo).distinct().toList();
+            if (hosts.isEmpty()) {
+                return getLocalTopWords(k);
+            }
+
+            List<CompletableFuture<List<KeyValue<String, Long>>>> futures = hosts.stream()
+                    .map(host -> CompletableFuture.supplyAsync(() -> host.equals(selfHost)
+                                    ? getLocalTopWords(k)
+                                    : queryClient.topWords(host, k), executor)
+                            .exceptionally(ex -> {
+                                log.warn("상위 단어 조회 실패, 해당 인스턴스 결과 제외: host={}, error={}", host, ex.getMessage());
+                                return List.of();
+                            }))
+                    .toList();
+
+            List<KeyValue<String, Long>> candidates = new ArrayList<>();
+            futures.forEach(future -> candidates.addAll(future.join()));
+            return topOf(candidates, k);
+        } finally {
+            sample.stop(queryTimer("top"));
+        }
+    }
+
+    /**
+     * 이 인스턴스가 보유한 태스크들의 상위 단어 k개 (내부 조회 API용)
+     * 전체 counts 저장소 대신 태스크별 상위 단어 저장소(word-count-top-k)만 병합합니다.
+     */
+    public List<KeyValue<String, Long>> getLocalTopWords(int k) {
+        return withStoreRetry(() -> {
+            List<KeyValue<String, Long>> entries = new ArrayList<>();
+            try (KeyValueIterator<String, Long> iterator = topKStore().all()) {
+                iterator.forEachRemaining(entries::add);
+            }
+            return topOf(entries, k);
+        });
+    }
+
+    /**
+     * 크기 k의 최소 힙으로 상위 k개만 남겨 횟수 내림차순으로 반환합니다.
+     */
+    private static List<KeyValue<String, Long>> topOf(List<KeyValue<String, Long>> entries, int k) {
+        PriorityQueue<KeyValue<String, Long>> heap = new PriorityQueue<>(
+                Comparator.comparingLong((KeyValue<String, Long> entry) -> entry.value));
+        for (KeyValue<String, Long> entry : entries) {
+            heap.offer(entry);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+
+        List<KeyValue<String, Long>> words = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            words.add(heap.poll());
+        }
+        Collections.reverse(words);
+        return words;
+    }
+
+    /**
+     * 니어 캐시를 먼저 확인하고, 나머지 단어는 소유 인스턴스로 라우팅하여 조회합니다.
+     */
+    private Map<String, Long> lookup(List<String> words) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String word : words) {
+            Long cached = nearCache.get(word);
+            result.put(word, cached);
+            if (cached == null) {
+                misses.add(word);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            // 조회 중에 도착한 갱신을 잃지 않도록 조회 전에 니어 캐시에 표시
+            List<WordCountNearCache.Load> loads = misses.stream().map(nearCache::beginLoad).toList();
+            Map<String, Long> fetched;
+            try {
+                fetched = routedLookup(misses);
+            } catch (RuntimeException e) {
+                loads.forEach(nearCache::abort);
+                throw e;
+            }
+            for (WordCountNearCache.Load load : loads) {
+                result.put(load.word(), nearCache.complete(load, fetched.getOrDefault(load.word(), 0L)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 단어를 queryMetadataForKey로 찾은 활성(active) 소유 인스턴스별로 묶어 병렬 조회합니다.
+     * 활성 인스턴스 조회가 실패하면(리밸런싱 중 등) 스탠바이 복제본으로 다시 조회하고,
+     * 조회할 복제본이 없으면 InvalidStateStoreException을 던집니다. (0으로 응답하지 않음)
+     */
+    private Map<String, Long> routedLookup(List<String> words) {
+        KafkaStreams kafkaStreams = runningStreams();
+        Map<String, KeyQueryMetadata> metadata = new HashMap<>();
+        Map<HostInfo, List<String>> wordsByOwner = new LinkedHashMap<>();
+        for (String word : words) {
+            KeyQueryMetadata keyMetadata = kafkaStreams.queryMetadataForKey(
+                    WordCountStream.COUNTS_STORE, word, KEY_SERIALIZER);
+            if (keyMetadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(keyMetadata)
+                    || HostInfo.unavailable().equals(keyMetadata.activeHost())) {
+                throw new InvalidStateStoreException("단어의 소유 인스턴스를 아직 알 수 없습니다. (리밸런싱 중): " + word);
+            }
+            metadata.put(word, keyMetadata);
+            wordsByOwner.computeIfAbsent(keyMetadata.activeHost(), host -> new ArrayList<>()).add(word);
+        }
+
+        List<CompletableFuture<Map<String, Long>>> futures = wordsByOwner.entrySet().stream()
+                .map(group -> CompletableFuture
+                        .supplyAsync(() -> fetch(group.getKey(), group.getValue(), metadata, false), executor)
+                        .exceptionallyCompose(ex -> {
+                            log.warn("활성 인스턴스 조회 실패, 스탠바이로 재시도: host={}, error={}", group.getKey(), ex.getMessage());
+                            return CompletableFuture.supplyAsync(() -> fetchFromStandbys(group.getValue(), metadata), executor);
+                        }))
+                .toList();
+
+        Map<String, Long> result = new HashMap<>();
+        try {
+            futures.forEach(future -> result.putAll(future.join()));
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return result;
+    }
+
+    /**
+     * 스탠바이 복제본에서 조회합니다. (자기 자신이 스탠바이면 로컬 우선)
+     * 스탠바이가 없으면 자기 자신이 활성 인스턴스인 경우(복구 중 등)에만 로컬 stale 조회로 대신합니다.
+     */
+    private Map<String, Long> fetchFromStandbys(List<String> words, Map<String, KeyQueryMetadata> metadata) {
+        Map<HostInfo, List<String>> wordsByStandby = new LinkedHashMap<>();
+        for (String word : words) {
+            KeyQueryMetadata keyMetadata = metadata.get(word);
+            Set<HostInfo> standbys = keyMetadata.standbyHosts();
+            HostInfo target;
+            if (standbys.contains(selfHost) || (standbys.isEmpty() && keyMetadata.activeHost().equals(selfHost))) {
+                target = selfHost;
+            } else if (!standbys.isEmpty()) {
+                target = standbys.iterator().next();
+            } else {
+                throw new InvalidStateStoreException("활성 인스턴스를 조회할 수 없고 스탠바이 복제본도 없습니다: " + word);
+            }
+            wordsByStandby.computeIfAbsent(target, host -> new ArrayList<>()).add(word);
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        wordsByStandby.forEach((host, hostWords) -> result.putAll(fetch(host, hostWords, metadata, true)));
+        return result;
+    }
+
+    /**
+     * 단어들의 파티션을 함께 넘겨 해당 인스턴스에서 조회합니다.
+     * 원격 조회 실패(503, 타임아웃 등)는 InvalidStateStoreException으로 바꿔 조회할 수 없는 상태로 다룹니다.
+     */
+    private Map<String, Long> fetch(HostInfo host, List<String> words, Map<String, KeyQueryMetadata> metadata,
+                                    boolean stale) {
+        Map<String, Integer> partitions = new LinkedHashMap<>();
+        for (String word : words) {
+            partitions.put(word, metadata.get(word).partition());
+        }
+        if (host.equals(selfHost)) {
+            return getLocalCounts(partitions, stale);
+        }
+        try {
+            return queryClient.counts(host, partitions, stale);
+        } catch (RestClientException e) {
+            throw new InvalidStateStoreException("인스턴스 " + host + " 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 접두사로 시작하는 단어를 키 순서대로 조회합니다.
+     *
+     * @param prefix 단어 접두사
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param limit 페이지 크기
+     */
+    public WordCountScan prefixScan(String prefix, String cursor, int limit) {
+        String after = decodeCursor(cursor);
+        return scan(after != null ? after : prefix, null, prefix, after, limit);
+    }
+
+    /**
+     * from 이상 to 이하 범위의 단어를 키 순서대로 조회합니다. (from/to가 null이면 해당 방향으로 제한 없음)
+     */
+    public WordCountScan rangeScan(String from, String to, String cursor, int limit) {
+        String after = decodeCursor(cursor);
+        return scan(after != null ? after : from, to, null, after, limit);
+    }
+
+    private WordCountScan scan(String from, String to, String prefix, String after, int limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer timer = queryTimer(prefix != null ? "prefix" : "range");
+        return withStoreRetry(() -> {
+            List<KeyValueIterator<String, Long>> iterators = new ArrayList<>();
+            try {
+                for (ReadOnlyKeyValueStore<String, Long> store : partitionStores()) {
+                    iterators.add(store.range(from, to));
+                }
+            } catch (RuntimeException e) {
+                iterators.forEach(KeyValueIterator::close);
+                throw e;
+            }
+            // 스캔 지연 시간은 결과 스트리밍이 끝나 이터레이터를 닫을 때까지로 측정
+            return new WordCountScan(iterators, prefix, after, limit, () -> sample.stop(timer));
+        });
+    }
+
+    /**
+     * 캐시된 핸들이 리밸런싱 등으로 무효해졌으면 핸들을 다시 얻어 한 번 재시도합니다.
+     */
+    private <T> T withStoreRetry(Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (InvalidStateStoreException e) {
+            invalidateStores();
+            return query.get();
+        }
+    }
+
+    private void invalidateStores() {
+        nearCache.clear();
+        countsStores.clear();
+        staleCountsStores.clear();
+        topKStore = null;
+        partitionStores = null;
+    }
+
+    /**
+     * 파티션 하나의 counts 저장소 (캐시)
+     *
+     * @param stale true면 스탠바이 복제본과 복구 중인 태스크의 저장소도 허용
+     */
+    private ReadOnlyKeyValueStore<String, Long> countsStore(int partition, boolean stale) {
+        Map<Integer, ReadOnlyKeyValueStore<String, Long>> stores = stale ? staleCountsStores : countsStores;
+        return stores.computeIfAbsent(partition, key -> {
+            StoreQueryParameters<ReadOnlyKeyValueStore<String, Long>> parameters = StoreQueryParameters
+                    .fromNameAndType(WordCountStream.COUNTS_STORE, QueryableStoreTypes.<String, Long>keyValueStore())
+                    .withPartition(key);
+            return runningStreams().store(stale ? parameters.enableStaleStores() : parameters);
+        });
+    }
+
+    /**
+     * 전체 로컬 파티션을 아우르는 상위 단어 저장소 (캐시)
+     */
+    private ReadOnlyKeyValueStore<String, Long> topKStore() {
+        ReadOnlyKeyValueStore<String, Long> store = topKStore;
+        if (store == null) {
+            store = runningStreams().store(
+                    StoreQueryParameters.fromNameAndType(WordCountStream.TOP_K_STORE, QueryableStoreTypes.keyValueStore()));
+            topKStore = store;
+        }
+        return store;
+    }
+
+    /**
+     * 이 인스턴스가 담당하는 파티션별 counts 저장소 (캐시)
+     * 조회마다 현재 할당된 counts 태스크의 파티션과 비교하여, 리밸런싱으로 파티션이 추가/제거되었으면 다시 만듭니다.
+     */
+    private List<ReadOnlyKeyValueStore<String, Long>> partitionStores() {
+        KafkaStreams kafkaStreams = runningStreams();
+        Set<Integer> assigned = assignedCountsPartitions(kafkaStreams);
+        PartitionStores stores = partitionStores;
+        if (stores == null || !stores.partitions().equals(assigned)) {
+            stores = new PartitionStores(assigned, localPartitionStores(kafkaStreams, assigned));
+            partitionStores = stores;
+        }
+        return stores.stores();
+    }
+
+    /**
+     * 이 인스턴스에 할당된 활성 counts 태스크의 파티션 번호
+     */
+    private Set<Integer> assignedCountsPartitions(KafkaStreams kafkaStreams) {
+        int subtopology = countsSubtopology();
+        TreeSet<Integer> partitions = new TreeSet<>();
+        kafkaStreams.metadataForLocalThreads().forEach(thread -> {
+            for (TaskMetadata task : thread.activeTasks()) {
+                if (task.taskId().subtopology() == subtopology) {
+                    partitions.add(task.taskId().partition());
+                }
+            }
+        });
+        return Collections.unmodifiableSet(partitions);
+    }
+
+    /**
+     * 할당된 파티션별 counts 저장소 핸들
+     * 복구 중이라 아직 조회할 수 없는 파티션이 있으면 일부 파티션만 스캔하지 않도록 InvalidStateStoreException을 그대로 던집니다.
+     */
+    private static List<ReadOnlyKeyValueStore<String, Long>> localPartitionStores(KafkaStreams kafkaStreams,
+                                                                                   Set<Integer> partitions) {
+        List<ReadOnlyKeyValueStore<String, Long>> stores = new ArrayList<>();
+        for (int partition : partitions) {
+            stores.add(kafkaStreams.store(StoreQueryParameters
+                    .fromNameAndType(WordCountStream.COUNTS_STORE, QueryableStoreTypes.<String, Long>keyValueStore())
+                    .withPartition(partition)));
+        }
+        return List.copyOf(stores);
+    }
+
+    /**
+     * counts 저장소를 사용하는 서브토폴로지 번호
+     */
+    private int countsSubtopology() {
+        Integer subtopology = countsSubtopology;
+        if (subtopology == null) {
+            Topology topology = pipelineRegistry.topology(KafkaStreamsConfig.WORD_COUNT);
+            if (topology == null) {
+                throw new IllegalStateException("단어 수 세기 파이프라인이 실행 중이 아닙니다.");
+            }
+            subtopology = topology.describe().subtopologies().stream()
+                    .filter(candidate -> candidate.nodes().stream().anyMatch(node ->
+                            node instanceof TopologyDescription.Processor processor
+                                    && processor.stores().contains(WordCountStream.COUNTS_STORE)))
+                    .map(TopologyDescription.Subtopology::id)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("counts 저장소를 사용하는 서브토폴로지가 없습니다."));
+            countsSubtopology = subtopology;
+        }
+        return subtopology;
+    }
+
+    private KafkaStreams runningStreams() {
+        KafkaStreams kafkaStreams = pipelineRegistry.kafkaStreams(KafkaStreamsConfig.WORD_COUNT);
+        if (kafkaStreams == null) {
+            throw new IllegalStateException("단어 수 세기 파이프라인이 실행 중이 아닙니다.");
+        }
+        return kafkaStreams;
+    }
+
+    private Timer queryTimer(String type) {
+        return Timer.builder("kafka.streams.query")
+                .description("단어 수 상태 저장소 조회 지연 시간")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+    }
+
+    /**
+     * 파티션별 저장소 핸들과 그 핸들을 만들 때 할당되어 있던 파티션
+     */
+    private record PartitionStores(Set<Integer> partitions, List<ReadOnlyKeyValueStore<String, Long>> stores) {
+    }
+
+    /**
+     * 파티션별 정렬된 이터레이터를 병합하는 스캔 결과
+     *
+     * 한 페이지(limit개)만큼 반환하며, 더 남은 결과가 있으면 nextCursor()로 다음 페이지 커서를 제공합니다.
+     * 사용 후 반드시 close()로 저장소 이터레이터를 닫아야 합니다.
+     */
+    public static final class WordCountScan implements Iterator<KeyValue<String, Long>>, Closeable {
+
+        private final List<KeyValueIterator<String, Long>> iterators;
+        private final PriorityQueue<Head> heads = new PriorityQueue<>();
+        private final String prefix;
+        private final String after;
+        private final int limit;
+        private final Runnable onClose;
+
+        private int returned;
+        private String lastKey;
+
+        private WordCountScan(List<KeyValueIterator<String, Long>> iterators, String prefix, String after, int limit,
+                              Runnable onClose) {
+            this.iterators = iterators;
+            this.prefix = prefix;
+            this.after = after;
+            this.limit = limit;
+            this.onClose = onClose;
+            for (KeyValueIterator<String, Long> iterator : iterators) {
+                advance(iterator);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return returned < limit && !heads.isEmpty();
+        }
+
+        @Override
+        public KeyValue<String, Long> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Head head = heads.poll();
+            advance(head.iterator);
+            returned++;
+            lastKey = head.entry.key;
+            return head.entry;
+        }
+
+        /**
+         * 다음 페이지 커서 (더 남은 결과가 없으면 null)
+         */
+        public String nextCursor() {
+            return returned >= limit && !heads.isEmpty() ? encodeCursor(lastKey) : null;
+        }
+
+        private void advance(KeyValueIterator<String, Long> iterator) {
+            while (iterator.hasNext()) {
+                KeyValue<String, Long> entry = iterator.next();
+                if (after != null && entry.key.equals(after)) {
+                    // 커서 위치(이전 페이지 마지막 키)는 제외
+                    continue;
+                }
+                if (prefix != null && !entry.key.startsWith(prefix)) {
+                    // 접두사 구간은 키 순서상 연속이므로 벗어나면 이 파티션은 끝
+                    return;
+                }
+                heads.add(new Head(entry, iterator));
+                return;
+            }
+        }
+
+        @Override
+        public void close() {
+            iterators.forEach(KeyValueIterator::close);
+            onClose.run();
+        }
+
+        /**
+         * 파티션 이터레이터의 현재 항목 (저장소와 같은 UTF-8 바이트 순으로 비교)
+         */
+        private static final class Head implements Comparable<Head> {
+            private final KeyValue<String, Long> entry;
+            private final byte[] keyBytes;
+            private final KeyValueIterator<String, Long> iterator;
+
+            private Head(KeyValue<String, Long> entry, KeyValueIterator<String, Long> iterator) {
+                this.entry = entry;
+                this.keyBytes = entry.key.getBytes(StandardCharsets.UTF_8);
+                this.iterator = iterator;
+            }
+
+            @Override
+            public int compareTo(Head other) {
+                return Arrays.compareUnsigned(keyBytes, other.keyBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.Statistics;
+import org.rocksdb.StatsLevel;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+/**
+ * 모든 RocksDB 상태 저장소의 오프힙 메모리를 하나의 예산으로 제한하는 설정
+ *
+ * 기본 설정에서는 저장소(윈도우 저장소는 세그먼트)마다 블록 캐시와 memtable을 따로 가지므로
+ * 파이프라인과 파티션이 늘어날수록 오프힙 메모리가 제한 없이 커집니다.
+ * 이 설정은 JVM 전체에서 블록 캐시 하나와 WriteBufferManager 하나를 공유하고,
+ * memtable 메모리도 블록 캐시 예산에 포함시켜 RocksDB 전체 사용량이 total-off-heap-bytes를 넘지 않게 합니다.
+ *
+ * Kafka Streams가 클래스 이름으로 인스턴스를 생성하므로 공유 자원은 static으로 보관하며,
+ * 예산은 파이프라인 설정(KafkaStreamsConfig)으로 전달된 값으로 처음 한 번만 초기화됩니다.
+ */
+public class BoundedMemoryRocksDBConfig implements RocksDBConfigSetter {
+
+    // 파이프라인 설정으로 전달하는 키
+    public static final String TOTAL_OFF_HEAP_BYTES_CONFIG = "app.rocksdb.total.off.heap.bytes";
+    public static final String MEMTABLE_RATIO_CONFIG = "app.rocksdb.memtable.ratio";
+    public static final String STATISTICS_ENABLED_CONFIG = "app.rocksdb.statistics.enabled";
+
+    private static final long DEFAULT_TOTAL_OFF_HEAP_BYTES = 256L * 1024 * 1024;
+    private static final double DEFAULT_MEMTABLE_RATIO = 0.25;
+
+    // 인덱스/필터 블록에 우선 배정하는 캐시 비율 (데이터 블록에 밀려 제거되지 않도록)
+    private static final double INDEX_FILTER_BLOCK_RATIO = 0.1;
+    private static final long BLOCK_SIZE = 16 * 1024;
+    private static final long MEMTABLE_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_MEMTABLES = 3;
+
+    // 점 조회(get)가 대부분인 저장소에 적용하는 블룸 필터 키당 비트 수 (오탐률 약 1%)
+    private static final double BLOOM_FILTER_BITS_PER_KEY = 10;
+
+    private static Cache cache;
+    private static WriteBufferManager writeBufferManager;
+    private static Statistics statistics;
+    private static long totalOffHeapBytes;
+
+    // 이 저장소에만 생성한 자원 (close()에서 해제)
+    private BloomFilter bloomFilter;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        initSharedResources(configs);
+
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(cache);
+        tableConfig.setBlockSize(BLOCK_SIZE);
+        // 인덱스/필터 블록도 공유 캐시에 넣어 예산에 포함 (최상위 인덱스/필터는 고정하여 조회 성능 유지)
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+
+        if (WordCountStream.COUNTS_STORE.equals(storeName)) {
+            // 단어 수 조회는 단건/다건 get이 대부분이므로 키 전체 블룸 필터로 없는 키의 디스크 읽기를 줄임
+            bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+            tableConfig.setFilterPolicy(bloomFilter);
+            tableConfig.setWholeKeyFiltering(true);
+        }
+        options.setTableFormatConfig(tableConfig);
+
+        // memtable은 WriteBufferManager를 통해 공유 캐시 예산에서 할당
+        options.setWriteBufferManager(writeBufferManager);
+        options.setWriteBufferSize(MEMTABLE_SIZE);
+        options.setMaxWriteBufferNumber(MAX_MEMTABLES);
+
+        // 레벨 압축: 동적 레벨 크기로 공간 증폭을 줄이고, 최하위 레벨만 압축률이 높은 zstd 사용
+        options.setCompactionStyle(CompactionStyle.LEVEL);
+        options.setLevelCompactionDynamicLevelBytes(true);
+        options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+        options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+
+        if (statistics != null) {
+            options.setStatistics(statistics);
+        }
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // 공유 캐시/WriteBufferManager/통계는 다른 저장소가 계속 사용하므로 해제하지 않음
+        if (bloomFilter != null) {
+            bloomFilter.close();
+        }
+    }
+
+    private static synchronized void initSharedResources(Map<String, Object> configs) {
+        if (cache != null) {
+            return;
+        }
+        totalOffHeapBytes = longConfig(configs, TOTAL_OFF_HEAP_BYTES_CONFIG, DEFAULT_TOTAL_OFF_HEAP_BYTES);
+        double memtableRatio = doubleConfig(configs, MEMTABLE_RATIO_CONFIG, DEFAULT_MEMTABLE_RATIO);
+
+        // strictCapacityLimit=false: 예산을 넘는 순간 쓰기가 실패하는 대신 캐시 항목을 먼저 제거
+        cache = new LRUCache(totalOffHeapBytes, -1, false, INDEX_FILTER_BLOCK_RATIO);
+        writeBufferManager = new WriteBufferManager((long) (totalOffHeapBytes * memtableRatio), cache);
+        if (Boolean.parseBoolean(String.valueOf(configs.getOrDefault(STATISTICS_ENABLED_CONFIG, "true")))) {
+            statistics = new Statistics();
+            statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+        }
+    }
+
+    /**
+     * 공유 블록 캐시 (아직 저장소가 열리지 않았으면 null)
+     */
+    static synchronized Cache cache() {
+        return cache;
+    }
+
+    /**
+     * 공유 RocksDB 통계 (비활성화되었거나 아직 저장소가 열리지 않았으면 null)
+     */
+    static synchronized Statistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * 전체 오프힙 메모리 예산 (bytes, 아직 초기화되지 않았으면 0)
+     */
+    static synchronized long totalOffHeapBytes() {
+        return totalOffHeapBytes;
+    }
+
+    private static long longConfig(Map<String, Object> configs, String key, long defaultValue) {
+        Object value = configs.get(key);
+        return value != null ? Long.parseLong(String.valueOf(value)) : defaultValue;
+    }
+
+    private static double doubleConfig(Map<String, Object> configs, String key, double defaultValue) {
+        Object value = configs.get(key);
+        return value != null ? Double.parseDouble(String.valueOf(value)) : defaultValue;
+    }
+}
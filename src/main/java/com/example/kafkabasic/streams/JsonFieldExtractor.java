@@ -0,0 +1,303 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.streams.kstream.Predicate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.DoublePredicate;
+
+/**
+ * JSON 원본 바이트에서 최상위 숫자 필드 하나만 읽어내는 스트리밍 추출기
+ *
+ * JsonNode 트리를 만들지 않고 바이트를 앞에서부터 한 번 훑으며, 찾는 필드를 만나면 바로 멈춥니다.
+ * 필드 이름 비교와 숫자 파싱 모두 바이트 배열 위에서 직접 수행하므로 일반적인 경우 객체를 할당하지 않습니다.
+ * (매우 긴 유효 숫자나 큰 지수처럼 빠른 경로로 정확히 계산할 수 없는 숫자만 Double.parseDouble로 처리)
+ *
+ * - 중첩 객체/배열 안의 같은 이름 필드는 무시하고 최상위 필드만 찾습니다.
+ * - 문자열로 된 숫자("500000")도 숫자로 읽습니다.
+ * - 필드가 없거나 숫자가 아니거나 JSON이 잘못된 경우 기본값을 반환합니다.
+ *
+ * 인스턴스는 불변이므로 여러 스트림 스레드에서 공유할 수 있습니다.
+ */
+public final class JsonFieldExtractor {
+
+    // 10^0 ~ 10^22 는 double로 정확히 표현 가능 (빠른 경로)
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private final String fieldName;
+    private final byte[] fieldNameBytes;
+
+    private JsonFieldExtractor(String fieldName) {
+        this.fieldName = fieldName;
+        this.fieldNameBytes = fieldName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 지정한 최상위 필드를 읽는 추출기를 생성합니다.
+     */
+    public static JsonFieldExtractor forField(String fieldName) {
+        return new JsonFieldExtractor(fieldName);
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * 필드 값을 double로 읽습니다.
+     *
+     * @param json 원본 JSON 바이트 (UTF-8)
+     * @param defaultValue 필드가 없거나 숫자가 아닐 때 반환할 값
+     */
+    public double extractDouble(byte[] json, double defaultValue) {
+        if (json == null) {
+            return defaultValue;
+        }
+        int length = json.length;
+        int i = skipWhitespace(json, 0);
+        if (i >= length || json[i] != '{') {
+            return defaultValue;
+        }
+        i = skipWhitespace(json, i + 1);
+        if (i < length && json[i] == '}') {
+            return defaultValue;
+        }
+
+        while (i < length) {
+            if (json[i] != '"') {
+                return defaultValue;
+            }
+            // 필드 이름 비교
+            int keyStart = i + 1;
+            int keyEnd = skipString(json, i);
+            if (keyEnd < 0) {
+                return defaultValue;
+            }
+            boolean matches = keyMatches(json, keyStart, keyEnd - 1);
+
+            i = skipWhitespace(json, keyEnd);
+            if (i >= length || json[i] != ':') {
+                return defaultValue;
+            }
+            i = skipWhitespace(json, i + 1);
+            if (i >= length) {
+                return defaultValue;
+            }
+
+            if (matches) {
+                return parseNumber(json, i, defaultValue);
+            }
+
+            // 찾는 필드가 아니면 값을 건너뜀
+            i = skipValue(json, i);
+            if (i < 0) {
+                return defaultValue;
+            }
+            i = skipWhitespace(json, i);
+            if (i >= length || json[i] != ',') {
+                return defaultValue;
+            }
+            i = skipWhitespace(json, i + 1);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 필드 값에 조건을 적용하는 Kafka Streams Predicate를 생성합니다.
+     * 필드가 없거나 숫자가 아니면 NaN이 조건에 전달됩니다.
+     */
+    public <K> Predicate<K, byte[]> matches(DoublePredicate condition) {
+        return (key, value) -> condition.test(extractDouble(value, Double.NaN));
+    }
+
+    private boolean keyMatches(byte[] json, int start, int end) {
+        int length = end - start;
+        if (length != fieldNameBytes.length) {
+            // 이스케이프가 포함된 이름은 길이가 달라 일치하지 않는 것으로 처리
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (json[start + k] != fieldNameBytes[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 숫자 또는 숫자 문자열을 파싱합니다.
+     */
+    private static double parseNumber(byte[] json, int start, double defaultValue) {
+        int length = json.length;
+        int i = start;
+        int end = length;
+        if (json[i] == '"') {
+            // 문자열로 된 숫자
+            i++;
+            end = skipString(json, start);
+            if (end < 0) {
+                return defaultValue;
+            }
+            end--; // 닫는 따옴표 위치
+        }
+
+        int numberStart = i;
+        boolean negative = false;
+        if (i < end && (json[i] == '-' || json[i] == '+')) {
+            negative = json[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+
+        while (i < end && isDigit(json[i])) {
+            anyDigit = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + (json[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+            }
+            i++;
+        }
+        if (i < end && json[i] == '.') {
+            i++;
+            while (i < end && isDigit(json[i])) {
+                anyDigit = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (json[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                }
+                i++;
+            }
+        }
+        if (!anyDigit) {
+            return defaultValue;
+        }
+        if (i < end && (json[i] == 'e' || json[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (json[i] == '-' || json[i] == '+')) {
+                negativeExponent = json[i] == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            boolean anyExponentDigit = false;
+            while (i < end && isDigit(json[i])) {
+                anyExponentDigit = true;
+                if (explicitExponent < 10_000) {
+                    explicitExponent = explicitExponent * 10 + (json[i] - '0');
+                }
+                i++;
+            }
+            if (!anyExponentDigit) {
+                return defaultValue;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        // 숫자 뒤에 허용되지 않는 문자가 있으면 숫자가 아닌 값으로 처리
+        if (i < end && !isValueTerminator(json[i])) {
+            return defaultValue;
+        }
+
+        double value;
+        if (mantissa <= MAX_EXACT_MANTISSA && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            // 정확한 반올림이 필요한 드문 경우에만 할당을 감수
+            value = Math.abs(Double.parseDouble(new String(json, numberStart, i - numberStart, StandardCharsets.US_ASCII)));
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 문자열 시작 따옴표 위치에서 닫는 따옴표 다음 위치를 반환합니다. (잘못된 경우 -1)
+     */
+    private static int skipString(byte[] json, int quote) {
+        int i = quote + 1;
+        while (i < json.length) {
+            byte b = json[i];
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 값(문자열, 숫자, 리터럴, 객체, 배열)을 건너뛰고 그 다음 위치를 반환합니다. (잘못된 경우 -1)
+     */
+    private static int skipValue(byte[] json, int start) {
+        byte first = json[start];
+        if (first == '"') {
+            return skipString(json, start);
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            int i = start;
+            while (i < json.length) {
+                byte b = json[i];
+                if (b == '"') {
+                    i = skipString(json, i);
+                    if (i < 0) {
+                        return -1;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+                i++;
+            }
+            return -1;
+        }
+        // 숫자 또는 true/false/null
+        int i = start;
+        while (i < json.length && !isValueTerminator(json[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(byte[] json, int start) {
+        int i = start;
+        while (i < json.length && isWhitespace(json[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isValueTerminator(byte b) {
+        return b == ',' || b == '}' || b == ']' || isWhitespace(b);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.kafkabasic.streams;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.rocksdb.Cache;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+import org.springframework.stereotype.Component;
+
+/**
+ * 공유 RocksDB 블록 캐시와 통계를 Micrometer 메트릭으로 노출
+ *
+ * BoundedMemoryRocksDBConfig가 모든 상태 저장소에 공유하는 자원을 대상으로 하므로
+ * 파이프라인/저장소 수와 관계없이 프로세스 전체의 RocksDB 오프힙 사용량을 한눈에 볼 수 있습니다.
+ * (저장소별 memtable 크기 등은 Kafka Streams 메트릭 kafka.stream.state.* 로 노출됨)
+ */
+@Component
+public class RocksDBMetrics {
+
+    public RocksDBMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("kafka.streams.rocksdb.block.cache.capacity", this, metrics -> BoundedMemoryRocksDBConfig.totalOffHeapBytes())
+                .description("RocksDB 전체 오프힙 메모리 예산 (블록 캐시 + memtable)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("kafka.streams.rocksdb.block.cache.usage", this, metrics -> cacheUsage(false))
+                .description("공유 블록 캐시 사용량 (memtable 예약분 포함)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("kafka.streams.rocksdb.block.cache.pinned.usage", this, metrics -> cacheUsage(true))
+                .description("공유 블록 캐시 중 고정되어 제거할 수 없는 사용량")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("kafka.streams.rocksdb.block.cache.hit.ratio", this, RocksDBMetrics::cacheHitRatio)
+                .description("공유 블록 캐시 적중률 (누적)")
+                .register(meterRegistry);
+
+        ticker(meterRegistry, "kafka.streams.rocksdb.compaction.read", TickerType.COMPACT_READ_BYTES, "압축(compaction) 중 읽은 바이트");
+        ticker(meterRegistry, "kafka.streams.rocksdb.compaction.written", TickerType.COMPACT_WRITE_BYTES, "압축(compaction) 중 쓴 바이트");
+        ticker(meterRegistry, "kafka.streams.rocksdb.flush.written", TickerType.FLUSH_WRITE_BYTES, "memtable 플러시로 쓴 바이트");
+    }
+
+    private void ticker(MeterRegistry meterRegistry, String name, TickerType type, String description) {
+        FunctionCounter.builder(name, this, metrics -> tickerCount(type))
+                .description(description)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static double cacheUsage(boolean pinned) {
+        Cache cache = BoundedMemoryRocksDBConfig.cache();
+        if (cache == null) {
+            return 0;
+        }
+        return pinned ? cache.getPinnedUsage() : cache.getUsage();
+    }
+
+    private double cacheHitRatio() {
+        double hits = tickerCount(TickerType.BLOCK_CACHE_HIT);
+        double misses = tickerCount(TickerType.BLOCK_CACHE_MISS);
+        return hits + misses > 0 ? hits / (hits + misses) : Double.NaN;
+    }
+
+    private static double tickerCount(TickerType type) {
+        Statistics statistics = BoundedMemoryRocksDBConfig.statistics();
+        return statistics != null ? statistics.getTickerCount(type) : 0;
+    }
+}
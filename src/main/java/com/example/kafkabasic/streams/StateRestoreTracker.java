@@ -0,0 +1,154 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.processor.StateRestoreListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상태 저장소 복구(변경 로그 재생) 진행 상황 추적기
+ *
+ * 파이프라인마다 StateRestoreListener를 연결하여 저장소 파티션별 복구 시작/진행/종료를 기록하고,
+ * 저장소 단위로 진행률, 복구 속도(레코드/초), 예상 남은 시간을 계산합니다.
+ * 복구 중인 파이프라인은 쿼리에 응답할 수 없으므로 헬스 체크에서 RESTORING으로 구분하는 데도 사용합니다.
+ */
+@Component
+public class StateRestoreTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateRestoreTracker.class);
+
+    // 진행 중인 복구 (파이프라인, 저장소, 변경 로그 파티션별)
+    private final Map<RestoreKey, Restoration> active = new ConcurrentHashMap<>();
+
+    // 저장소별 마지막 복구 완료 결과 (파이프라인/저장소 -> 요약)
+    private final Map<String, Map<String, Object>> completed = new ConcurrentHashMap<>();
+
+    /**
+     * 파이프라인에 연결할 복구 리스너를 생성합니다. (KafkaStreamsConfig에서 파이프라인 생성 시 호출)
+     */
+    public StateRestoreListener listener(String pipeline) {
+        return new StateRestoreListener() {
+            @Override
+            public void onRestoreStart(TopicPartition partition, String storeName, long startingOffset, long endingOffset) {
+                active.put(new RestoreKey(pipeline, storeName, partition), new Restoration(startingOffset, endingOffset));
+                logger.info("상태 저장소 복구 시작: pipeline={}, store={}, partition={}, records={}",
+                        pipeline, storeName, partition, endingOffset - startingOffset);
+            }
+
+            @Override
+            public void onBatchRestored(TopicPartition partition, String storeName, long batchEndOffset, long numRestored) {
+                Restoration restoration = active.get(new RestoreKey(pipeline, storeName, partition));
+                if (restoration != null) {
+                    // 한 파티션의 복구 콜백은 하나의 스레드에서만 호출됨
+                    restoration.restored += numRestored;
+                }
+            }
+
+            @Override
+            public void onRestoreEnd(TopicPartition partition, String storeName, long totalRestored) {
+                Restoration restoration = active.remove(new RestoreKey(pipeline, storeName, partition));
+                long durationMs = restoration != null ? restoration.elapsedMs() : 0;
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("partition", partition.toString());
+                summary.put("restoredRecords", totalRestored);
+                summary.put("durationMs", durationMs);
+                summary.put("recordsPerSecond", durationMs > 0 ? totalRestored * 1000.0 / durationMs : null);
+                completed.put(pipeline + "/" + storeName, summary);
+                logger.info("상태 저장소 복구 완료: pipeline={}, store={}, partition={}, records={}, durationMs={}",
+                        pipeline, storeName, partition, totalRestored, durationMs);
+            }
+
+            @Override
+            public void onRestoreSuspended(TopicPartition partition, String storeName, long totalRestored) {
+                // 리밸런싱으로 태스크가 다른 인스턴스로 이동하여 복구가 중단됨
+                active.remove(new RestoreKey(pipeline, storeName, partition));
+                logger.info("상태 저장소 복구 중단: pipeline={}, store={}, partition={}, records={}",
+                        pipeline, storeName, partition, totalRestored);
+            }
+        };
+    }
+
+    /**
+     * 파이프라인에 복구 중인 저장소가 있는지 여부
+     */
+    public boolean isRestoring(String pipeline) {
+        return active.keySet().stream().anyMatch(key -> key.pipeline().equals(pipeline));
+    }
+
+    /**
+     * 파이프라인/저장소별 복구 진행 상황
+     * (진행 중인 복구는 파티션을 합산한 진행률, 속도, 예상 남은 시간, 완료된 복구는 마지막 결과)
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> stores = new TreeMap<>();
+
+        Map<String, List<Restoration>> restoringByStore = new TreeMap<>();
+        active.forEach((key, restoration) -> restoringByStore
+                .computeIfAbsent(key.pipeline() + "/" + key.store(), name -> new ArrayList<>())
+                .add(restoration));
+        restoringByStore.forEach((name, restorations) -> stores.put(name, progress(restorations)));
+
+        completed.forEach((name, summary) -> stores
+                .computeIfAbsent(name, key -> new LinkedHashMap<>(Map.of("restoring", false)))
+                .put("lastCompleted", summary));
+        return stores;
+    }
+
+    private static Map<String, Object> progress(List<Restoration> restorations) {
+        long total = 0;
+        long restored = 0;
+        long elapsedMs = 0;
+        for (Restoration restoration : restorations) {
+            total += restoration.total();
+            restored += restoration.restored;
+            elapsedMs = Math.max(elapsedMs, restoration.elapsedMs());
+        }
+        double rate = elapsedMs > 0 ? restored * 1000.0 / elapsedMs : 0;
+        long remaining = Math.max(0, total - restored);
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("restoring", true);
+        progress.put("partitions", restorations.size());
+        progress.put("totalRecords", total);
+        progress.put("restoredRecords", restored);
+        progress.put("progress", total > 0 ? (double) restored / total : 1.0);
+        progress.put("recordsPerSecond", rate);
+        progress.put("etaSeconds", rate > 0 ? (long) Math.ceil(remaining / rate) : null);
+        progress.put("elapsedMs", elapsedMs);
+        return progress;
+    }
+
+    private record RestoreKey(String pipeline, String store, TopicPartition partition) {
+    }
+
+    /**
+     * 변경 로그 파티션 하나의 복구 진행 상황 (복구 스레드가 갱신하고 조회 스레드가 읽음)
+     */
+    private static final class Restoration {
+        private final long startOffset;
+        private final long endOffset;
+        private final long startNanos = System.nanoTime();
+        private volatile long restored;
+
+        private Restoration(long startOffset, long endOffset) {
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        private long total() {
+            return Math.max(0, endOffset - startOffset);
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 파이프라인별 KafkaStreams 인스턴스를 관리하는 레지스트리
+ *
+ * KafkaStreamsConfig에서 생성한 파이프라인을 이름으로 등록하고,
+ * 실행 중에 파이프라인 단위로 시작/중지하거나 스트림 스레드 수를 조정할 수 있게 합니다.
+ */
+@Component
+public class StreamsPipelineRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamsPipelineRegistry.class);
+
+    // 스트림 스레드 제거 시 최대 대기 시간
+    private static final Duration REMOVE_THREAD_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Map<String, StreamsBuilderFactoryBean> pipelines = new LinkedHashMap<>();
+    private final Map<String, List<KafkaStreams.StateListener>> stateListeners = new ConcurrentHashMap<>();
+
+    /**
+     * 파이프라인을 등록합니다. (설정 클래스에서 빈 생성 시 호출)
+     */
+    public synchronized void register(String name, StreamsBuilderFactoryBean factoryBean) {
+        List<KafkaStreams.StateListener> listeners = stateListeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>());
+        factoryBean.setStateListener((newState, oldState) -> {
+            logger.info("Streams 파이프라인 상태 변경: pipeline={}, {} -> {}", name, oldState, newState);
+            listeners.forEach(listener -> listener.onChange(newState, oldState));
+        });
+        pipelines.put(name, factoryBean);
+    }
+
+    /**
+     * 파이프라인 상태 변경 리스너를 추가합니다. (리밸런싱, 재시작 등 상태 변경 시 호출)
+     * 파이프라인 등록 전에 추가해도 등록 시 함께 연결됩니다.
+     */
+    public void addStateListener(String name, KafkaStreams.StateListener listener) {
+        stateListeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 등록된 파이프라인 이름 목록
+     */
+    public synchronized List<String> names() {
+        return List.copyOf(pipelines.keySet());
+    }
+
+    /**
+     * 파이프라인의 KafkaStreams 인스턴스를 반환합니다. (시작 전이거나 중지된 경우 null)
+     */
+    public KafkaStreams kafkaStreams(String name) {
+        return factoryBean(name).getKafkaStreams();
+    }
+
+    /**
+     * 파이프라인의 토폴로지를 반환합니다. (시작 전이면 null)
+     */
+    public Topology topology(String name) {
+        return factoryBean(name).getTopology();
+    }
+
+    /**
+     * 파이프라인 상태 (시작 전이거나 중지된 경우 NOT_RUNNING)
+     */
+    public String state(String name) {
+        KafkaStreams kafkaStreams = kafkaStreams(name);
+        return kafkaStreams != null ? kafkaStreams.state().name() : KafkaStreams.State.NOT_RUNNING.name();
+    }
+
+    /**
+     * 파이프라인의 현재 스트림 스레드 수
+     */
+    public int threadCount(String name) {
+        KafkaStreams kafkaStreams = kafkaStreams(name);
+        return kafkaStreams != null ? kafkaStreams.metadataForLocalThreads().size() : 0;
+    }
+
+    /**
+     * 전체 파이프라인 상태 (모든 파이프라인의 상태가 같으면 그 상태, 다르면 PARTIAL)
+     */
+    public String overallState() {
+        List<String> states = names().stream().map(this::state).distinct().toList();
+        return states.size() == 1 ? states.get(0) : "PARTIAL";
+    }
+
+    /**
+     * 파이프라인의 application.id (= 입력 토픽 오프셋을 커밋하는 컨슈머 그룹 ID)
+     */
+    public String applicationId(String name) {
+        return factoryBean(name).getStreamsConfiguration().getProperty(StreamsConfig.APPLICATION_ID_CONFIG);
+    }
+
+    /**
+     * 파이프라인 상태 요약 (이름, 상태, 스레드 수, application.id)
+     */
+    public Map<String, Object> describe(String name) {
+        StreamsBuilderFactoryBean factoryBean = factoryBean(name);
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", name);
+        description.put("applicationId", applicationId(name));
+        description.put("state", state(name));
+        description.put("threads", threadCount(name));
+        description.put("running", factoryBean.isRunning());
+        return description;
+    }
+
+    /**
+     * 파이프라인을 시작합니다. 이미 실행 중이면 아무것도 하지 않습니다.
+     */
+    public void start(String name) {
+        StreamsBuilderFactoryBean factoryBean = factoryBean(name);
+        if (!factoryBean.isRunning()) {
+            logger.info("Streams 파이프라인 시작: {}", name);
+            factoryBean.start();
+        }
+    }
+
+    /**
+     * 파이프라인을 중지합니다. 다른 파이프라인은 계속 실행됩니다.
+     */
+    public void stop(String name) {
+        StreamsBuilderFactoryBean factoryBean = factoryBean(name);
+        if (factoryBean.isRunning()) {
+            logger.info("Streams 파이프라인 중지: {}", name);
+            factoryBean.stop();
+        }
+    }
+
+    /**
+     * 파이프라인의 스트림 스레드 수를 조정합니다. (재시작 없이 스레드 추가/제거)
+     *
+     * @param name 파이프라인 이름
+     * @param threads 목표 스레드 수 (1 이상)
+     * @return 조정 후 스레드 수
+     */
+    public int scale(String name, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("스트림 스레드 수는 1 이상이어야 합니다: " + threads);
+        }
+        KafkaStreams kafkaStreams = kafkaStreams(name);
+        if (kafkaStreams == null || !kafkaStreams.state().isRunningOrRebalancing()) {
+            throw new IllegalStateException("실행 중인 파이프라인만 스레드 수를 조정할 수 있습니다: " + name);
+        }
+
+        int current = kafkaStreams.metadataForLocalThreads().size();
+        while (current < threads && kafkaStreams.addStreamThread().isPresent()) {
+            current++;
+        }
+        while (current > threads && kafkaStreams.removeStreamThread(REMOVE_THREAD_TIMEOUT).isPresent()) {
+            current--;
+        }
+        logger.info("Streams 파이프라인 스레드 수 조정: pipeline={}, requested={}, actual={}", name, threads, current);
+        return current;
+    }
+
+    private synchronized StreamsBuilderFactoryBean factoryBean(String name) {
+        StreamsBuilderFactoryBean factoryBean = pipelines.get(name);
+        if (factoryBean == null) {
+            throw new IllegalArgumentException("알 수 없는 Streams 파이프라인: " + name);
+        }
+        return factoryBean;
+    }
+}
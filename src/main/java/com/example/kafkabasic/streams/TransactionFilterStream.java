@@ -1,24 +1,33 @@
 package com.example.kafkabasic.streams;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.kafkabasic.config.KafkaStreamsConfig;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
-import org.apache.kafka.streams.kstream.Branched;
 import org.apache.kafka.streams.kstream.Consumed;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
 import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * 트랜잭션 필터링 예제 - 금액에 따라 트랜잭션을 필터링하여 다른 토픽으로 라우팅
  * 입력 토픽에서 트랜잭션 데이터를 읽어 금액에 따라 대/중/소 금액 토픽으로 분류
+ * amount 필드가 없거나 숫자가 아니거나 JSON이 잘못된 메시지는 라우팅하지 않고 제외합니다.
  */
 @Component
 public class TransactionFilterStream {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionFilterStream.class);
+
     // 입력 및 출력 토픽 이름
     private static final String INPUT_TOPIC = "transaction-input";
     private static final String HIGH_AMOUNT_TOPIC = "high-amount-transactions";
@@ -28,61 +37,78 @@ public class TransactionFilterStream {
     // 금액 기준
     private static final double HIGH_AMOUNT_THRESHOLD = 1000000.0; // 100만원 이상
     private static final double MEDIUM_AMOUNT_THRESHOLD = 100000.0; // 10만원 이상
-    
-    // JSON 처리를 위한 ObjectMapper
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // amount 필드만 원본 바이트에서 바로 읽는 추출기
+    private static final JsonFieldExtractor AMOUNT = JsonFieldExtractor.forField("amount");
 
     /**
      * Kafka Streams 토폴로지 정의
-     * StreamsBuilder는 Spring에 의해 자동으로 주입됨
+     * 이 파이프라인 전용 StreamsBuilder가 주입됨 (별도의 KafkaStreams 인스턴스로 실행)
      */
     @Autowired
-    public void buildPipeline(StreamsBuilder streamsBuilder) {
-        // 입력 토픽에서 KStream 생성
-        KStream<String, String> transactionStream = streamsBuilder.stream(
+    public void buildPipeline(@Qualifier(KafkaStreamsConfig.TRANSACTION_FILTER_BUILDER) StreamsBuilder streamsBuilder) {
+        // 입력 토픽에서 KStream 생성 (값은 역직렬화하지 않고 원본 바이트 그대로 사용)
+        KStream<String, byte[]> transactionStream = streamsBuilder.stream(
                 INPUT_TOPIC,
-                Consumed.with(Serdes.String(), Serdes.String())
+                Consumed.with(Serdes.String(), Serdes.ByteArray())
         );
 
-        // 트랜잭션 금액에 따라 스트림 분기
-        transactionStream
-            .split()
-            .branch((key, value) -> isHighAmountTransaction(value), 
-                    Branched.withConsumer(ks -> ks.to(HIGH_AMOUNT_TOPIC, 
-                            Produced.with(Serdes.String(), Serdes.String()))))
-            .branch((key, value) -> isMediumAmountTransaction(value), 
-                    Branched.withConsumer(ks -> ks.to(MEDIUM_AMOUNT_TOPIC, 
-                            Produced.with(Serdes.String(), Serdes.String()))))
-            .defaultBranch(
-                    Branched.withConsumer(ks -> ks.to(LOW_AMOUNT_TOPIC, 
-                            Produced.with(Serdes.String(), Serdes.String()))));
+        // 레코드당 amount 필드를 한 번만 스캔하여 대상 토픽의 싱크로 바로 전달하고, 금액을 읽을 수 없는 메시지는 제외
+        // (분기마다 다시 읽는 split/branch 대신 라우팅 프로세서를 사용하며, 레코드를 감싸거나 복사하지 않음)
+        // 싱크 노드 이름은 출력 토픽 이름과 같으므로 destinationTopic()의 결과를 그대로 자식 노드 이름으로 사용
+        KStream<String, byte[]> routed = transactionStream
+            .process(TransactionRouter::new, Named.as("transaction-router"));
+        for (String topic : List.of(HIGH_AMOUNT_TOPIC, MEDIUM_AMOUNT_TOPIC, LOW_AMOUNT_TOPIC)) {
+            routed.to(topic, Produced.with(Serdes.String(), Serdes.ByteArray()).withName(topic));
+        }
     }
 
     /**
-     * 고액 트랜잭션 여부 확인 (100만원 이상)
+     * 트랜잭션 메시지의 amount 필드를 읽어 대상 토픽을 결정합니다.
+     *
+     * @return 대상 토픽 (amount 필드가 없거나 숫자가 아니거나 JSON이 잘못된 경우 null)
      */
-    private boolean isHighAmountTransaction(String transactionJson) {
-        return getTransactionAmount(transactionJson) >= HIGH_AMOUNT_THRESHOLD;
+    static String destinationTopic(byte[] transaction) {
+        return destinationTopic(AMOUNT.extractDouble(transaction, Double.NaN));
     }
 
     /**
-     * 중간 금액 트랜잭션 여부 확인 (10만원 이상 100만원 미만)
+     * 금액에 따라 대상 토픽을 결정합니다.
+     * 100만원 이상은 고액, 10만원 이상은 중간 금액, 나머지는 소액 토픽 (NaN이나 무한대는 null)
      */
-    private boolean isMediumAmountTransaction(String transactionJson) {
-        double amount = getTransactionAmount(transactionJson);
-        return amount >= MEDIUM_AMOUNT_THRESHOLD && amount < HIGH_AMOUNT_THRESHOLD;
+    static String destinationTopic(double amount) {
+        if (!Double.isFinite(amount)) {
+            return null;
+        }
+        if (amount >= HIGH_AMOUNT_THRESHOLD) {
+            return HIGH_AMOUNT_TOPIC;
+        }
+        if (amount >= MEDIUM_AMOUNT_THRESHOLD) {
+            return MEDIUM_AMOUNT_TOPIC;
+        }
+        return LOW_AMOUNT_TOPIC;
     }
 
     /**
-     * 트랜잭션 JSON에서 금액 추출
-     * 입력 JSON 예시: {"transactionId": "tx123", "amount": 500000, "timestamp": "2025-08-02T10:30:00", "userId": "user456"}
+     * 트랜잭션을 금액에 맞는 출력 토픽의 싱크로만 전달하는 프로세서
      */
-    private double getTransactionAmount(String transactionJson) {
-        try {
-            JsonNode transactionNode = objectMapper.readTree(transactionJson);
-            return transactionNode.path("amount").asDouble(0.0);
-        } catch (JsonProcessingException e) {
-            return 0.0; // 파싱 오류 시 0으로 처리
+    private static final class TransactionRouter implements Processor<String, byte[], String, byte[]> {
+
+        private ProcessorContext<String, byte[]> context;
+
+        @Override
+        public void init(ProcessorContext<String, byte[]> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(Record<String, byte[]> record) {
+            String topic = destinationTopic(record.value());
+            if (topic == null) {
+                logger.warn("금액을 읽을 수 없는 트랜잭션 메시지 제외: key={}", record.key());
+                return;
+            }
+            context.forward(record, topic);
         }
     }
-}
\ No newline at end of file
+}
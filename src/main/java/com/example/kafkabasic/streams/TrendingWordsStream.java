@@ -0,0 +1,163 @@
+package com.example.kafkabasic.streams;
+
+import com.example.kafkabasic.config.KafkaStreamsConfig;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 인기 단어(trending words) 예제 - 시간 윈도우별 단어 출현 횟수
+ *
+ * word-count-input의 텍스트를 단어 수 세기와 같은 WordTokenizer 설정으로 분리한 뒤,
+ * 두 가지 윈도우로 단어별 출현 횟수를 집계합니다.
+ * - 텀블링 윈도우: 겹치지 않는 고정 구간 (예: 5분 단위)
+ * - 호핑 윈도우: 일정 간격으로 이동하며 겹치는 구간 (예: 1분마다 최근 5분)
+ *
+ * 윈도우는 유예 시간(grace)이 지날 때까지 늦게 도착한 레코드를 반영하며,
+ * suppress로 윈도우가 닫힌 뒤 최종 결과만 출력 토픽으로 보냅니다.
+ * suppress 버퍼는 닫히지 않은 윈도우의 (단어, 윈도우)마다 한 건씩 메모리에 보관하므로 레코드 수와 바이트 수로 제한하며,
+ * 한도를 넘으면 최종 결과 보장을 깨고 중간 결과를 내보내는 대신 파이프라인을 중지합니다. (shutDownWhenFull)
+ * 윈도우별 횟수는 보존 기간이 제한된 영구(RocksDB) 윈도우 저장소에 보관되어 REST API로 조회할 수 있습니다.
+ */
+@Component
+public class TrendingWordsStream {
+
+    // 입력 및 출력 토픽 이름
+    private static final String INPUT_TOPIC = "word-count-input";
+    private static final String TUMBLING_OUTPUT_TOPIC = "trending-words-output";
+    private static final String HOPPING_OUTPUT_TOPIC = "trending-words-hopping-output";
+
+    // 윈도우 저장소 이름 (REST API에서 조회 가능)
+    public static final String TUMBLING_STORE = "trending-words-tumbling";
+    public static final String HOPPING_STORE = "trending-words-hopping";
+
+    private final Duration windowSize;
+    private final Duration advance;
+    private final Duration grace;
+    private final Duration retention;
+    private final long suppressMaxRecords;
+    private final long suppressMaxBytes;
+    private final List<String> stopwords;
+    private final int minWordLength;
+
+    public TrendingWordsStream(
+            @Value("${app.kafka.streams.trending-words.window-size-ms:300000}") long windowSizeMs,
+            @Value("${app.kafka.streams.trending-words.advance-ms:60000}") long advanceMs,
+            @Value("${app.kafka.streams.trending-words.grace-ms:30000}") long graceMs,
+            @Value("${app.kafka.streams.trending-words.retention-ms:86400000}") long retentionMs,
+            @Value("${app.kafka.streams.trending-words.suppress.max-records:500000}") long suppressMaxRecords,
+            @Value("${app.kafka.streams.trending-words.suppress.max-bytes:67108864}") long suppressMaxBytes,
+            @Value("${app.kafka.streams.word-count.tokenizer.stopwords:}") List<String> stopwords,
+            @Value("${app.kafka.streams.word-count.tokenizer.min-length:1}") int minWordLength) {
+        this.windowSize = Duration.ofMillis(windowSizeMs);
+        this.advance = Duration.ofMillis(advanceMs);
+        this.grace = Duration.ofMillis(graceMs);
+        // 윈도우 저장소 보존 기간은 윈도우 크기 + 유예 시간 이상이어야 함
+        this.retention = Duration.ofMillis(Math.max(retentionMs, windowSizeMs + graceMs));
+        this.suppressMaxRecords = suppressMaxRecords;
+        this.suppressMaxBytes = suppressMaxBytes;
+        this.stopwords = List.copyOf(stopwords);
+        this.minWordLength = minWordLength;
+    }
+
+    /**
+     * 텀블링/호핑 윈도우 크기 (윈도우 끝 시각 계산용)
+     */
+    public Duration windowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Kafka Streams 토폴로지 정의
+     * 이 파이프라인 전용 StreamsBuilder가 주입됨 (별도의 KafkaStreams 인스턴스로 실행)
+     */
+    @Autowired
+    public void buildPipeline(@Qualifier(KafkaStreamsConfig.TRENDING_WORDS_BUILDER) StreamsBuilder streamsBuilder) {
+        // 줄을 단어로 분리하여 (단어, 1)로 내보내고 단어 키 기준으로 그룹화 (리파티션은 한 번만 수행하고 두 윈도우가 공유)
+        KGroupedStream<String, Long> words = streamsBuilder
+                .stream(INPUT_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+                .process(() -> new WordSplitter(new WordTokenizer(stopwords, minWordLength)))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.Long()));
+
+        // 텀블링 윈도우: 겹치지 않는 windowSize 구간별 출현 횟수
+        KTable<Windowed<String>, Long> tumblingCounts = words
+                .windowedBy(TimeWindows.ofSizeAndGrace(windowSize, grace))
+                .count(Materialized.<String, Long>as(
+                        Stores.persistentWindowStore(TUMBLING_STORE, retention, windowSize, false))
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        // 호핑 윈도우: advance 간격으로 시작하는 windowSize 구간별 출현 횟수 (각 레코드가 여러 윈도우에 반영됨)
+        KTable<Windowed<String>, Long> hoppingCounts = words
+                .windowedBy(TimeWindows.ofSizeAndGrace(windowSize, grace).advanceBy(advance))
+                .count(Materialized.<String, Long>as(
+                        Stores.persistentWindowStore(HOPPING_STORE, retention, windowSize, false))
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        // 윈도우가 닫힌 뒤(윈도우 끝 + 유예 시간) 윈도우당 최종 결과 1건만 출력
+        Serde<Windowed<String>> windowedKeySerde = WindowedSerdes.timeWindowedSerdeFrom(String.class, windowSize.toMillis());
+        tumblingCounts
+                .suppress(Suppressed.untilWindowCloses(suppressBuffer()))
+                .toStream()
+                .to(TUMBLING_OUTPUT_TOPIC, Produced.with(windowedKeySerde, Serdes.Long()));
+        hoppingCounts
+                .suppress(Suppressed.untilWindowCloses(suppressBuffer()))
+                .toStream()
+                .to(HOPPING_OUTPUT_TOPIC, Produced.with(windowedKeySerde, Serdes.Long()));
+    }
+
+    /**
+     * 태스크별 suppress 버퍼 한도 (넘으면 파이프라인 중지)
+     */
+    private Suppressed.StrictBufferConfig suppressBuffer() {
+        return Suppressed.BufferConfig.maxRecords(suppressMaxRecords)
+                .withMaxBytes(suppressMaxBytes)
+                .shutDownWhenFull();
+    }
+
+    /**
+     * 줄을 단어로 분리하여 (단어, 1)을 원본 레코드 타임스탬프로 내보내는 프로세서
+     * WordTokenizer는 스레드 안전하지 않으므로 프로세서(태스크)마다 별도 인스턴스를 사용합니다.
+     */
+    private static final class WordSplitter implements Processor<String, String, String, Long> {
+
+        private final WordTokenizer tokenizer;
+        private final Consumer<String> emitter = this::forward;
+
+        private ProcessorContext<String, Long> context;
+        private Record<String, String> current;
+
+        private WordSplitter(WordTokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+        }
+
+        @Override
+        public void init(ProcessorContext<String, Long> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(Record<String, String> record) {
+            current = record;
+            tokenizer.tokenize(record.value(), emitter);
+        }
+
+        private void forward(String word) {
+            context.forward(current.withKey(word).withValue(1L));
+        }
+    }
+}
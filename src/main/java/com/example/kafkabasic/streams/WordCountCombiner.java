@@ -0,0 +1,96 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 단어 수 세기 리파티션 전에 태스크 내에서 단어별 부분 합계를 미리 모으는 컴바이너
+ *
+ * 입력 줄을 WordTokenizer로 단어로 분리하여 바로 누적합니다.
+ * 단어가 나올 때마다 리파티션 토픽으로 1건씩 보내는 대신, 태스크 로컬 저장소에 단어별 합계를 누적했다가
+ * 일정 주기(punctuation) 또는 저장소 크기 한도에 도달했을 때 (단어, 부분 합계)를 한 번에 내보냅니다.
+ * 리파티션 트래픽은 대략 플러시 구간 내 단어 평균 출현 횟수만큼 줄어듭니다.
+ *
+ * 부분 합계는 변경 로그가 있는 인메모리 저장소에 보관하므로 장애 시에도 유실되지 않으며,
+ * 저장소 캐시 덕분에 변경 로그에는 커밋 주기마다 단어당 한 번만 기록됩니다.
+ */
+public class WordCountCombiner implements Processor<String, String, String, Long> {
+
+    private final String storeName;
+    private final Duration flushInterval;
+    private final int maxEntries;
+    private final WordTokenizer tokenizer;
+    private final Consumer<String> counter = this::count;
+
+    private ProcessorContext<String, Long> context;
+    private KeyValueStore<String, Long> partialCounts;
+    private long bufferedEntries;
+
+    /**
+     * @param storeName 부분 합계를 보관할 저장소 이름
+     * @param flushInterval 부분 합계를 내보내는 주기 (벽시계 기준)
+     * @param maxEntries 이 개수 이상의 단어가 쌓이면 주기와 관계없이 즉시 내보냄
+     * @param tokenizer 입력 줄을 단어로 분리하는 토크나이저 (프로세서 전용 인스턴스)
+     */
+    public WordCountCombiner(String storeName, Duration flushInterval, int maxEntries, WordTokenizer tokenizer) {
+        this.storeName = storeName;
+        this.flushInterval = flushInterval;
+        this.maxEntries = maxEntries;
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, Long> context) {
+        this.context = context;
+        this.partialCounts = context.getStateStore(storeName);
+        // 복구된 저장소에 남아 있던 부분 합계도 크기 한도 계산에 포함
+        this.bufferedEntries = partialCounts.approximateNumEntries();
+        context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> flush());
+    }
+
+    @Override
+    public void process(Record<String, String> record) {
+        tokenizer.tokenize(record.value(), counter);
+    }
+
+    private void count(String word) {
+        Long current = partialCounts.get(word);
+        if (current == null) {
+            partialCounts.put(word, 1L);
+            bufferedEntries++;
+        } else {
+            partialCounts.put(word, current + 1);
+        }
+
+        if (bufferedEntries >= maxEntries) {
+            flush();
+        }
+    }
+
+    /**
+     * 누적된 부분 합계를 (단어, 합계)로 내보내고 저장소를 비웁니다.
+     */
+    private void flush() {
+        List<KeyValue<String, Long>> pending = new ArrayList<>();
+        try (KeyValueIterator<String, Long> iterator = partialCounts.all()) {
+            iterator.forEachRemaining(pending::add);
+        }
+
+        long timestamp = context.currentStreamTimeMs();
+        for (KeyValue<String, Long> entry : pending) {
+            context.forward(new Record<>(entry.key, entry.value, timestamp));
+            partialCounts.delete(entry.key);
+        }
+        bufferedEntries = 0;
+    }
+}
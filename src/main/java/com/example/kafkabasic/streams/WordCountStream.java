@@ -1,13 +1,17 @@
 package com.example.kafkabasic.streams;
 
+import com.example.kafkabasic.config.KafkaStreamsConfig;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
 import org.apache.kafka.streams.state.Stores;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * 단어 수 세기 예제 - Kafka Streams의 대표적인 예제
@@ -21,42 +25,81 @@ public class WordCountStream {
     private static final String OUTPUT_TOPIC = "word-count-output";
     
     // 상태 저장소 이름 (REST API에서 조회 가능)
-    private static final String COUNTS_STORE = "counts";
+    public static final String COUNTS_STORE = "counts";
+    
+    // 리파티션 전 부분 합계를 보관하는 컴바이너 저장소 이름
+    private static final String COMBINER_STORE = "word-count-combiner";
+
+    // 태스크별 상위 단어를 보관하는 저장소 이름 (REST API에서 조회 가능)
+    public static final String TOP_K_STORE = "word-count-top-k";
+
+    private final Duration combinerFlushInterval;
+    private final int combinerMaxEntries;
+    private final List<String> stopwords;
+    private final int minWordLength;
+    private final int topKCapacity;
+
+    public WordCountStream(
+            @Value("${app.kafka.streams.word-count.combiner.flush-interval-ms:1000}") long combinerFlushIntervalMs,
+            @Value("${app.kafka.streams.word-count.combiner.max-entries:10000}") int combinerMaxEntries,
+            @Value("${app.kafka.streams.word-count.tokenizer.stopwords:}") List<String> stopwords,
+            @Value("${app.kafka.streams.word-count.tokenizer.min-length:1}") int minWordLength,
+            @Value("${app.kafka.streams.word-count.top-k.capacity:100}") int topKCapacity) {
+        this.combinerFlushInterval = Duration.ofMillis(combinerFlushIntervalMs);
+        this.combinerMaxEntries = combinerMaxEntries;
+        this.stopwords = List.copyOf(stopwords);
+        this.minWordLength = minWordLength;
+        this.topKCapacity = topKCapacity;
+    }
 
     /**
      * Kafka Streams 토폴로지 정의
-     * StreamsBuilder는 Spring에 의해 자동으로 주입됨
+     * 이 파이프라인 전용 StreamsBuilder가 주입됨 (별도의 KafkaStreams 인스턴스로 실행)
      */
     @Autowired
-    public void buildPipeline(StreamsBuilder streamsBuilder) {
+    public void buildPipeline(@Qualifier(KafkaStreamsConfig.WORD_COUNT_BUILDER) StreamsBuilder streamsBuilder) {
         // 입력 토픽에서 KStream 생성
         KStream<String, String> textLines = streamsBuilder.stream(
                 INPUT_TOPIC,
                 Consumed.with(Serdes.String(), Serdes.String())
         );
 
+        // 컴바이너 부분 합계 저장소 (캐시로 변경 로그 기록을 단어당 커밋 주기마다 한 번으로 줄임)
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(COMBINER_STORE),
+                        Serdes.String(),
+                        Serdes.Long())
+                .withCachingEnabled());
+
         // 단어 수 세기 로직 구현
         KTable<String, Long> wordCounts = textLines
-                // 소문자로 변환
-                .mapValues(value -> value.toLowerCase())
-                // 단어로 분리 (flatMapValues는 각 입력 값을 여러 출력 값으로 변환)
-                .flatMapValues(value -> Arrays.asList(value.split("\\W+")))
-                // 빈 단어 필터링
-                .filter((key, value) -> !value.isEmpty())
-                // 단어를 키로 사용하기 위해 키-값 쌍 재구성
-                .selectKey((key, value) -> value)
-                // 같은 단어끼리 그룹화
-                .groupByKey()
-                // 각 단어의 출현 횟수 계산 및 상태 저장소에 저장
-                .count(Materialized.<String, Long>as(
+                // 줄을 소문자 단어로 분리하면서 (WordTokenizer, 한 번의 문자 순회)
+                // 태스크 내에서 단어별 부분 합계를 모은 뒤 (단어, 부분 합계)로 내보냄
+                // 단어 출현마다가 아니라 플러시 주기마다 단어당 1건만 리파티션 토픽으로 전송됨
+                .process(() -> new WordCountCombiner(COMBINER_STORE, combinerFlushInterval, combinerMaxEntries,
+                                new WordTokenizer(stopwords, minWordLength)),
+                        COMBINER_STORE)
+                // 같은 단어끼리 그룹화 (단어 키 기준 리파티션)
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.Long()))
+                // 부분 합계를 더해 각 단어의 출현 횟수 계산 및 상태 저장소에 저장
+                .reduce(Long::sum, Materialized.<String, Long>as(
                         Stores.persistentKeyValueStore(COUNTS_STORE))
                         .withKeySerde(Serdes.String())
                         .withValueSerde(Serdes.Long()));
 
         // 결과를 출력 토픽으로 전송
-        wordCounts.toStream().to(
+        KStream<String, Long> countUpdates = wordCounts.toStream();
+        countUpdates.to(
                 OUTPUT_TOPIC,
                 Produced.with(Serdes.String(), Serdes.Long())
         );
+
+        // 단어 수 갱신으로 태스크별 상위 단어 유지 (단어 키 기준으로 이미 파티셔닝되어 있어 리파티션 없음)
+        streamsBuilder.addStateStore(Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(TOP_K_STORE),
+                        Serdes.String(),
+                        Serdes.Long())
+                .withCachingEnabled());
+        countUpdates.process(() -> new WordCountTopKProcessor(TOP_K_STORE, topKCapacity), TOP_K_STORE);
     }
 }
\ No newline at end of file
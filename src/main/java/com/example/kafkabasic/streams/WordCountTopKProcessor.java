@@ -0,0 +1,87 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 태스크별 상위 K개 단어(heavy hitters)를 유지하는 프로세서
+ *
+ * 단어 수 KTable의 변경 스트림(단어, 누적 횟수)을 받아, 횟수가 가장 큰 단어를 최대 capacity개까지 저장소에 보관합니다.
+ * 단어별 누적 횟수는 줄어들지 않고 매 갱신마다 전체 합계가 전달되므로,
+ * 한 번 밀려난 단어도 다시 최솟값을 넘는 순간 들어오게 되어 근사 없이 정확한 상위 K개가 유지됩니다.
+ *
+ * 저장소는 변경 로그가 있는 인메모리 저장소이며 태스크당 capacity개 이하의 항목만 가지므로,
+ * 조회 시 전체 단어 수 저장소를 스캔하지 않고 메모리에서 바로 상위 K개를 계산할 수 있습니다.
+ */
+public class WordCountTopKProcessor implements Processor<String, Long, Void, Void> {
+
+    // 횟수 오름차순, 같으면 단어 순 (first()가 가장 작은 항목)
+    private static final Comparator<KeyValue<String, Long>> BY_COUNT =
+            Comparator.<KeyValue<String, Long>>comparingLong(entry -> entry.value)
+                    .thenComparing(entry -> entry.key);
+
+    private final String storeName;
+    private final int capacity;
+
+    private KeyValueStore<String, Long> topWords;
+    private final Map<String, Long> counts = new HashMap<>();
+    private final TreeSet<KeyValue<String, Long>> ranking = new TreeSet<>(BY_COUNT);
+
+    /**
+     * @param storeName 상위 단어를 보관할 저장소 이름
+     * @param capacity 태스크별로 유지할 최대 단어 수
+     */
+    public WordCountTopKProcessor(String storeName, int capacity) {
+        this.storeName = storeName;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.topWords = context.getStateStore(storeName);
+        // 변경 로그에서 복구된 저장소로 메모리 순위를 재구성
+        try (KeyValueIterator<String, Long> iterator = topWords.all()) {
+            iterator.forEachRemaining(entry -> {
+                counts.put(entry.key, entry.value);
+                ranking.add(entry);
+            });
+        }
+    }
+
+    @Override
+    public void process(Record<String, Long> record) {
+        String word = record.key();
+        Long count = record.value();
+        if (word == null || count == null) {
+            return;
+        }
+
+        Long previous = counts.get(word);
+        if (previous != null) {
+            // 이미 상위 목록에 있는 단어는 횟수만 갱신
+            ranking.remove(KeyValue.pair(word, previous));
+        } else if (counts.size() >= capacity) {
+            // 목록이 가득 찼으면 최솟값보다 클 때만 최솟값을 밀어냄
+            KeyValue<String, Long> smallest = ranking.first();
+            if (count <= smallest.value) {
+                return;
+            }
+            ranking.pollFirst();
+            counts.remove(smallest.key);
+            topWords.delete(smallest.key);
+        }
+
+        counts.put(word, count);
+        ranking.add(KeyValue.pair(word, count));
+        topWords.put(word, count);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.kafkabasic.streams;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 단어 수 세기용 토크나이저
+ *
+ * 문자열을 코드 포인트 단위로 한 번만 훑으면서 소문자로 바꾸고, 단어가 끝날 때마다 바로 전달합니다.
+ * toLowerCase()로 줄 전체를 복사하거나 정규식 split으로 배열을 만들지 않으므로
+ * 전달되는 단어 String 외에는 객체를 할당하지 않습니다.
+ *
+ * - 단어 문자: 유니코드 문자/숫자와 '_' (한글 등 비ASCII 단어도 하나의 단어로 인식)
+ * - 불용어(stopword)와 최소 길이(코드 포인트 기준)보다 짧은 단어는 제외
+ *
+ * 내부 버퍼를 재사용하므로 스레드 안전하지 않습니다. 프로세서(태스크)마다 별도 인스턴스를 사용하세요.
+ */
+public final class WordTokenizer {
+
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private final Set<String> stopwords;
+    private final int minLength;
+
+    // 소문자로 변환한 현재 단어를 담는 재사용 버퍼
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+
+    /**
+     * @param stopwords 제외할 단어 목록 (앞뒤 공백 제거 후 소문자로 비교, 빈 항목은 무시)
+     * @param minLength 단어 최소 길이 (코드 포인트 수, 1 이상)
+     */
+    public WordTokenizer(Collection<String> stopwords, int minLength) {
+        this.stopwords = stopwords.stream()
+                .map(String::strip)
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.minLength = Math.max(1, minLength);
+    }
+
+    /**
+     * 텍스트를 단어로 분리하여 sink에 차례로 전달합니다.
+     */
+    public void tokenize(CharSequence text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int size = 0;        // 버퍼에 담긴 char 수
+        int codePoints = 0;  // 현재 단어의 코드 포인트 수
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int codePoint;
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+                i += 2;
+            } else {
+                codePoint = c;
+                i++;
+            }
+
+            if (isWordCharacter(codePoint)) {
+                int lower = Character.toLowerCase(codePoint);
+                if (size + 2 > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                size += Character.toChars(lower, buffer, size);
+                codePoints++;
+            } else if (size > 0) {
+                emit(size, codePoints, sink);
+                size = 0;
+                codePoints = 0;
+            }
+        }
+        if (size > 0) {
+            emit(size, codePoints, sink);
+        }
+    }
+
+    private void emit(int size, int codePoints, Consumer<String> sink) {
+        if (codePoints < minLength) {
+            return;
+        }
+        String word = new String(buffer, 0, size);
+        if (!stopwords.isEmpty() && stopwords.contains(word)) {
+            return;
+        }
+        sink.accept(word);
+    }
+
+    private static boolean isWordCharacter(int codePoint) {
+        return Character.isLetterOrDigit(codePoint) || codePoint == '_';
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.kafkabasic.streams.model;
+
+/**
+ * 변환된 사용자 데이터
+ * 출력 JSON 예시: {"userId": "123", "displayName": "홍길동", "contactInfo": {"email": "hong@example.com"}}
+ */
+public record TransformedUserData(String userId, String displayName, ContactInfo contactInfo) {
+
+    /**
+     * 연락처 정보
+     */
+    public record ContactInfo(String email) {
+    }
+}
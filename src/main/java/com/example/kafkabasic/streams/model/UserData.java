@@ -0,0 +1,8 @@
+package com.example.kafkabasic.streams.model;
+
+/**
+ * 사용자 데이터
+ * 입력 JSON 예시: {"id": "123", "name": "홍길동", "email": "hong@example.com", "age": 30, "address": "서울시"}
+ */
+public record UserData(String id, String name, String email, Integer age, String address) {
+}
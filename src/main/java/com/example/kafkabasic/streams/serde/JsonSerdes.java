@@ -0,0 +1,77 @@
+package com.example.kafkabasic.streams.serde;
+
+import com.example.kafkabasic.streams.model.TransformedUserData;
+import com.example.kafkabasic.streams.model.UserData;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * 스트림 토폴로지에서 사용하는 타입 지정 JSON Serde 모음
+ *
+ * 레코드마다 바이트 배열에서 바로 한 번만 역직렬화하므로 String 변환과 JsonNode 트리 생성 비용이 없습니다.
+ * 파싱할 수 없는 메시지는 스트림을 멈추지 않도록 경고 로그를 남기고 null 값으로 전달하며,
+ * 각 토폴로지는 null 값을 걸러냅니다.
+ * 필드 하나만 보고 필터링/라우팅하는 토폴로지는 역직렬화 대신 JsonFieldExtractor를 사용합니다.
+ */
+public final class JsonSerdes {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonSerdes.class);
+
+    // 스레드 안전한 ObjectReader/ObjectWriter를 만들기 위한 공용 ObjectMapper
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    public static final Serde<UserData> USER_DATA = of(UserData.class);
+    public static final Serde<TransformedUserData> TRANSFORMED_USER_DATA = of(TransformedUserData.class);
+
+    private JsonSerdes() {
+    }
+
+    /**
+     * 지정한 타입의 JSON Serde를 생성합니다.
+     */
+    public static <T> Serde<T> of(Class<T> type) {
+        ObjectReader reader = OBJECT_MAPPER.readerFor(type);
+        ObjectWriter writer = OBJECT_MAPPER.writerFor(type);
+
+        Serializer<T> serializer = (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return writer.writeValueAsBytes(data);
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("JSON 직렬화 실패: " + type.getSimpleName(), e);
+            }
+        };
+
+        Deserializer<T> deserializer = (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return reader.readValue(data);
+            } catch (IOException e) {
+                logger.warn("JSON 파싱 실패 ({}), 레코드를 건너뜀: topic={}, error={}",
+                        type.getSimpleName(), topic, e.getMessage());
+                return null;
+            }
+        };
+
+        return Serdes.serdeFrom(serializer, deserializer);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.kafkabasic.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 배치 튜너가 linger.ms/batch.size를 바꾸는 동안 동시에 보낸 메시지가 "producer closed" 없이 모두 ack되는지 검증합니다.
+ */
+@EmbeddedKafka(partitions = 2, topics = "tuning-topic")
+class ReconfigurableProducerFactoryTest {
+
+    @Test
+    void sendsSucceedWhileProducerIsReconfigured(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        ReconfigurableProducerFactory<String, String> factory =
+                new ReconfigurableProducerFactory<>(props, DefaultKafkaProducerFactory::new, Duration.ofSeconds(10));
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(factory);
+
+        Queue<CompletableFuture<SendResult<String, String>>> futures = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> sendErrors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean reconfiguring = new AtomicBoolean(true);
+        List<Thread> senders = IntStream.range(0, 4)
+                .mapToObj(sender -> Thread.ofVirtual().start(() -> {
+                    int sequence = 0;
+                    // 튜닝이 끝날 때까지 계속 전송하여 매 교체 시점에 진행 중인 전송이 있도록 함
+                    while (reconfiguring.get() || sequence < 100) {
+                        try {
+                            futures.add(template.send("tuning-topic", "sender-" + sender, "message-" + sequence++));
+                        } catch (RuntimeException e) {
+                            sendErrors.add(e);
+                        }
+                    }
+                }))
+                .toList();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                factory.reconfigure(Map.of(
+                        ProducerConfig.LINGER_MS_CONFIG, i % 2 == 0 ? 20 : 1,
+                        ProducerConfig.BATCH_SIZE_CONFIG, i % 2 == 0 ? 65536 : 16384));
+                Thread.sleep(50);
+            }
+        } finally {
+            reconfiguring.set(false);
+        }
+        for (Thread sender : senders) {
+            sender.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        assertThat(sendErrors).isEmpty();
+        assertThat(futures).hasSizeGreaterThanOrEqualTo(400);
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        assertThat(futures).allMatch(future -> !future.isCompletedExceptionally());
+        assertThat(factory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 1)
+                .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
+
+        factory.destroy();
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.kafkabasic.load;
+
+import com.example.kafkabasic.streams.StreamsPipelineRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 임베디드 Kafka 위에서 REST 유입부터 출력 토픽까지의 처리량과 지연 시간을 측정하는 부하 하니스
+ *
+ * MessageController와 KafkaStreamsController의 유입 엔드포인트에 설정한 속도로 요청을 고르게 나눠 보내고(open-loop),
+ * 출력 토픽마다 read_committed 컨슈머로 레코드를 받아 (수신 시각 - 레코드 타임스탬프)를 지연 시간으로 기록합니다.
+ * 레코드 타임스탬프는 REST 요청 처리 중 Producer가 전송한 시각이므로, 상태 없는 파이프라인은 유입부터 출력까지,
+ * 단어 수 세기처럼 집계하는 파이프라인은 마지막으로 반영된 입력부터 출력까지의 시간입니다.
+ *
+ * 기본 테스트에서는 제외되며 ./gradlew loadTest 로 실행합니다. 외부 브로커 없이 오프라인으로 실행됩니다.
+ * 설정 (-P 또는 -D): load.rate (초당 요청 수, 기본 200), load.duration-seconds (기본 30),
+ * load.warmup-seconds (측정에서 제외할 시작 구간, 기본 5), load.drain-seconds (전송 종료 후 출력 대기, 기본 15)
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "logging.level.com.example.kafkabasic=WARN"
+        })
+@EmbeddedKafka(
+        partitions = 3,
+        topics = {
+                "basic-topic",
+                "word-count-input", "word-count-output",
+                "user-data-input", "user-data-transformed",
+                "events-input", "notifications-output",
+                "transaction-input", "high-amount-transactions", "medium-amount-transactions", "low-amount-transactions"
+        },
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+class EndToEndLoadTest {
+
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int DRAIN_SECONDS = Integer.getInteger("load.drain-seconds", 15);
+
+    // 지연 시간 히스토그램 범위 (마이크로초, 최대 10분, 유효 숫자 3자리)
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final String[] WORDS = {
+            "kafka", "streams", "topic", "partition", "offset", "consumer", "producer", "broker",
+            "카프카", "스트림", "메시지", "처리", "latency", "throughput", "replica", "leader"
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private StreamsPipelineRegistry pipelineRegistry;
+
+    @DynamicPropertySource
+    static void stateDir(DynamicPropertyRegistry registry) throws IOException {
+        Path stateDir = Files.createTempDirectory("load-test-state");
+        registry.add("app.kafka.streams.state-dir", stateDir::toString);
+    }
+
+    /**
+     * 유입 시나리오: 엔드포인트 하나와 그 결과가 나오는 토픽
+     */
+    private record Scenario(String name, Supplier<HttpRequest> request, List<String> outputTopics) {
+    }
+
+    @Test
+    void measureEndToEndLatency() throws Exception {
+        // 모든 파이프라인이 RUNNING이 될 때까지 대기 (태스크 할당 전 유입은 지연 시간을 왜곡함)
+        await().atMost(Duration.ofSeconds(120)).until(() -> pipelineRegistry.names().stream()
+                .map(pipelineRegistry::kafkaStreams)
+                .allMatch(streams -> streams != null && streams.state() == KafkaStreams.State.RUNNING));
+
+        Random random = new Random(42);
+        List<Scenario> scenarios = scenarios(random);
+
+        Map<String, OutputProbe> probes = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            for (String topic : scenario.outputTopics()) {
+                probes.put(topic, new OutputProbe(topic));
+            }
+        }
+        probes.values().forEach(OutputProbe::start);
+
+        long startMillis = System.currentTimeMillis();
+        long measureFromMillis = startMillis + TimeUnit.SECONDS.toMillis(WARMUP_SECONDS);
+        probes.values().forEach(probe -> probe.measureFrom(measureFromMillis));
+
+        LoadResult load = generateLoad(scenarios, startMillis);
+
+        // 전송 종료 후 마지막 출력(EOS 커밋, 단어 수 부분 합계 플러시 등)까지 대기
+        Thread.sleep(TimeUnit.SECONDS.toMillis(DRAIN_SECONDS));
+        probes.values().forEach(OutputProbe::stop);
+
+        report(load, probes.values());
+
+        assertThat(load.errors()).as("HTTP 요청 실패 수").isZero();
+        for (OutputProbe probe : probes.values()) {
+            assertThat(probe.histogram.getTotalCount()).as("%s 측정 레코드 수", probe.topic).isPositive();
+        }
+    }
+
+    private List<Scenario> scenarios(Random random) {
+        String base = "http://localhost:" + port;
+        return List.of(
+                new Scenario("send", () -> HttpRequest.newBuilder(URI.create(base + "/api/send?msg="
+                                + URLEncoder.encode(sentence(random), StandardCharsets.UTF_8)))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                        List.of("basic-topic")),
+                new Scenario("word-count", () -> post(base + "/api/streams/word-count", sentence(random)),
+                        List.of("word-count-output")),
+                new Scenario("user-data", () -> post(base + "/api/streams/user-data",
+                                "{\"id\":\"" + random.nextInt(100_000) + "\",\"name\":\"홍길동\",\"email\":\"user"
+                                        + random.nextInt(1000) + "@example.com\",\"age\":" + (20 + random.nextInt(50))
+                                        + ",\"address\":\"서울시\"}"),
+                        List.of("user-data-transformed")),
+                new Scenario("event", () -> post(base + "/api/streams/event",
+                                "{\"id\":\"evt" + random.nextInt(100_000) + "\",\"type\":\"alert\",\"priority\":"
+                                        + random.nextInt(10) + ",\"message\":\"시스템 경고\"}"),
+                        List.of("notifications-output")),
+                new Scenario("transaction", () -> post(base + "/api/streams/transaction",
+                                "{\"transactionId\":\"tx-" + random.nextInt(100_000) + "\",\"amount\":"
+                                        + (long) Math.pow(10, 4 + random.nextInt(3)) * (1 + random.nextInt(9))
+                                        + ",\"userId\":\"user-" + random.nextInt(100) + "\"}"),
+                        List.of("high-amount-transactions", "medium-amount-transactions", "low-amount-transactions")));
+    }
+
+    /**
+     * 시나리오를 번갈아 가며 RATE 속도로 요청을 보냅니다.
+     * 응답을 기다리지 않고 예정 시각마다 보내며(open-loop), HTTP 지연 시간은 예정 시각부터 측정하여
+     * 서버가 느려져 전송이 밀린 시간도 지연 시간에 포함되게 합니다. (coordinated omission 방지)
+     */
+    private LoadResult generateLoad(List<Scenario> scenarios, long startMillis) throws InterruptedException {
+        Recorder httpLatency = new Recorder(MAX_LATENCY_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong completed = new AtomicLong();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long totalRequests = (long) RATE * DURATION_SECONDS;
+        long measureFromRequest = (long) RATE * WARMUP_SECONDS;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            long startNanos = System.nanoTime();
+            for (long i = 0; i < totalRequests; i++) {
+                long scheduledNanos = startNanos + i * intervalNanos;
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                boolean measured = i >= measureFromRequest;
+                HttpRequest request = scenarios.get((int) (i % scenarios.size())).request().get();
+
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                    if (ex != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else if (measured) {
+                        httpLatency.recordValue(Math.min(MAX_LATENCY_MICROS,
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos)));
+                    }
+                    completed.incrementAndGet();
+                });
+            }
+            // 마지막 요청의 응답까지 대기
+            await().atMost(Duration.ofMinutes(2)).until(() -> completed.get() == totalRequests);
+        }
+        long elapsedMillis = System.currentTimeMillis() - startMillis;
+        return new LoadResult(totalRequests, elapsedMillis, errors.get(), httpLatency.getIntervalHistogram());
+    }
+
+    private record LoadResult(long requests, long elapsedMillis, long errors, Histogram httpLatency) {
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String sentence(Random random) {
+        StringBuilder sentence = new StringBuilder();
+        int words = 5 + random.nextInt(10);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * 출력 토픽 하나를 끝에서부터 읽어 레코드별 지연 시간을 기록하는 컨슈머 (전용 스레드에서 실행)
+     */
+    private final class OutputProbe implements Runnable {
+
+        private final String topic;
+        private final Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+        private final KafkaConsumer<byte[], byte[]> consumer;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile long measureFromMillis = Long.MAX_VALUE;
+        private long firstMillis = Long.MAX_VALUE;
+        private long lastMillis;
+
+        private OutputProbe(String topic) {
+            this.topic = topic;
+            Map<String, Object> props = new LinkedHashMap<>();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            this.consumer = new KafkaConsumer<>(props, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+            this.thread = Thread.ofPlatform().name("load-probe-" + topic).unstarted(this);
+
+            // 부하 시작 전의 끝 위치부터 읽도록 위치를 확정
+            List<TopicPartition> partitions = new ArrayList<>();
+            consumer.partitionsFor(topic).forEach(info -> partitions.add(new TopicPartition(topic, info.partition())));
+            consumer.assign(partitions);
+            consumer.seekToEnd(partitions);
+            partitions.forEach(consumer::position);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void measureFrom(long millis) {
+            measureFromMillis = millis;
+        }
+
+        @Override
+        public void run() {
+            try (consumer) {
+                while (running) {
+                    for (ConsumerRecord<byte[], byte[]> record : consumer.poll(Duration.ofMillis(100))) {
+                        long now = System.currentTimeMillis();
+                        if (record.timestamp() < measureFromMillis) {
+                            continue;
+                        }
+                        histogram.recordValue(Math.min(MAX_LATENCY_MICROS,
+                                TimeUnit.MILLISECONDS.toMicros(Math.max(0, now - record.timestamp()))));
+                        firstMillis = Math.min(firstMillis, now);
+                        lastMillis = now;
+                    }
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * 측정 구간의 초당 출력 레코드 수 (첫 레코드 수신부터 마지막 레코드 수신까지)
+         */
+        double throughput() {
+            long windowMillis = lastMillis - firstMillis;
+            return windowMillis > 0 ? histogram.getTotalCount() * 1000.0 / windowMillis : 0;
+        }
+    }
+
+    private static void report(LoadResult load, Iterable<OutputProbe> probes) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n=== 엔드투엔드 부하 측정 (목표 %d req/s, %d초, 처음 %d초 제외) ===%n",
+                RATE, DURATION_SECONDS, WARMUP_SECONDS));
+        report.append(String.format("HTTP 요청: %d건, 실패 %d건, 달성 %.1f req/s%n",
+                load.requests(), load.errors(), load.requests() * 1000.0 / load.elapsedMillis()));
+        report.append(String.format("%-28s %10s %12s %10s %10s %10s %10s%n",
+                "대상", "레코드", "레코드/초", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+        report.append(row("HTTP 응답", load.httpLatency(), load.httpLatency().getTotalCount() * 1000.0
+                / Math.max(1, load.elapsedMillis() - TimeUnit.SECONDS.toMillis(WARMUP_SECONDS))));
+        for (OutputProbe probe : probes) {
+            report.append(row(probe.topic, probe.histogram, probe.throughput()));
+        }
+        System.out.print(report);
+
+        try {
+            Path output = Path.of("build", "reports", "load-test", "summary.txt");
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String row(String name, Histogram histogram, double throughput) {
+        return String.format("%-28s %10d %12.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name, histogram.getTotalCount(), throughput,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.kafkabasic.service;
+
+import com.example.kafkabasic.config.RetryTopics;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 재시도 토픽 리스너가 실패한 레코드를 다음 재시도 토픽으로 넘긴 뒤 그 오프셋을 커밋하여,
+ * 컨테이너를 재시작해도 같은 레코드를 다시 소비해 다음 단계로 중복 전송하지 않는지 검증합니다.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.kafka.streams.pipelines.word-count.auto-startup=false",
+        "app.kafka.streams.pipelines.data-transformation.auto-startup=false",
+        "app.kafka.streams.pipelines.notification.auto-startup=false",
+        "app.kafka.streams.pipelines.transaction-filter.auto-startup=false",
+        "app.kafka.streams.pipelines.trending-words.auto-startup=false"
+})
+@EmbeddedKafka(
+        partitions = 1,
+        topics = {
+                RetryTopics.USER_DATA_INPUT, RetryTopics.USER_DATA_RETRY_1S, RetryTopics.USER_DATA_RETRY_10S,
+                RetryTopics.USER_DATA_RETRY_60S, RetryTopics.USER_DATA_INPUT + RetryTopics.DLQ_SUFFIX
+        },
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+class RetryTopicRecoveryTest {
+
+    private static final TopicPartition RETRY_1S = new TopicPartition(RetryTopics.USER_DATA_RETRY_1S, 0);
+    private static final TopicPartition RETRY_10S = new TopicPartition(RetryTopics.USER_DATA_RETRY_10S, 0);
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private AdminClient adminClient;
+
+    @Test
+    void recoveredRecordIsNotRepublishedAfterRestart() throws Exception {
+        MessageListenerContainer retry1s = retryContainer();
+        ContainerTestUtils.waitForAssignment(retry1s, 1);
+
+        // 처리 시점이 이미 지난 실패 메시지 -> 재시도 리스너가 즉시 처리하고 실패하여 .retry-10s로 전송
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer())) {
+            ProducerRecord<String, String> record =
+                    new ProducerRecord<>(RetryTopics.USER_DATA_RETRY_1S, "user-1", "error payload");
+            record.headers().add(RetryTopics.DUE_AT_HEADER,
+                    String.valueOf(System.currentTimeMillis() - 1).getBytes(StandardCharsets.UTF_8));
+            producer.send(record).get(10, TimeUnit.SECONDS);
+        }
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> endOffset(RETRY_10S) == 1);
+        // 다음 단계로 넘긴 레코드의 오프셋이 커밋되어 있어야 함
+        await().atMost(Duration.ofSeconds(10)).until(() -> committedOffset(RETRY_1S) == 1);
+
+        // 재시작 후에도 커밋된 오프셋부터 소비하므로 같은 레코드를 다시 전송하지 않음
+        retry1s.stop();
+        retry1s.start();
+        ContainerTestUtils.waitForAssignment(retry1s, 1);
+        Thread.sleep(3000);
+
+        assertThat(endOffset(RETRY_10S)).isEqualTo(1);
+        assertThat(committedOffset(RETRY_1S)).isEqualTo(1);
+    }
+
+    private MessageListenerContainer retryContainer() {
+        return listenerRegistry.getListenerContainers().stream()
+                .filter(container -> Arrays.asList(container.getContainerProperties().getTopics())
+                        .contains(RetryTopics.USER_DATA_RETRY_1S))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long endOffset(TopicPartition partition) throws Exception {
+        return adminClient.listOffsets(Map.of(partition, OffsetSpec.latest()))
+                .partitionResult(partition).get(10, TimeUnit.SECONDS).offset();
+    }
+
+    private long committedOffset(TopicPartition partition) throws Exception {
+        OffsetAndMetadata offset = adminClient.listConsumerGroupOffsets("error-demo-group")
+                .partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS).get(partition);
+        return offset != null ? offset.offset() : -1;
+    }
+}
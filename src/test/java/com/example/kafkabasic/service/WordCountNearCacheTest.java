@@ -0,0 +1,60 @@
+package com.example.kafkabasic.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 니어 캐시가 저장소 조회 중에 도착한 갱신을 잃지 않고, 줄어든 값과 파이프라인 상태 변경을 반영하는지 검증합니다.
+ */
+class WordCountNearCacheTest {
+
+    private final WordCountNearCache cache = new WordCountNearCache(true, 100, new SimpleMeterRegistry());
+
+    @Test
+    void updateDuringStoreReadWinsOverReadValue() {
+        WordCountNearCache.Load load = cache.beginLoad("kafka");
+        // 저장소에서 3을 읽는 사이 4로 갱신됨
+        cache.onCountUpdate(update("kafka", 4L));
+
+        assertThat(cache.complete(load, 3L)).isEqualTo(4L);
+        assertThat(cache.get("kafka")).isEqualTo(4L);
+    }
+
+    @Test
+    void updatesOverwriteCachedValueEvenWhenLower() {
+        cache.complete(cache.beginLoad("kafka"), 10L);
+
+        // 파이프라인 초기화 후 다시 센 값
+        cache.onCountUpdate(update("kafka", 1L));
+
+        assertThat(cache.get("kafka")).isEqualTo(1L);
+    }
+
+    @Test
+    void clearDropsEntriesAndLoadsStartedBefore() {
+        cache.complete(cache.beginLoad("kafka"), 10L);
+        WordCountNearCache.Load inFlight = cache.beginLoad("streams");
+
+        cache.clear();
+
+        assertThat(cache.get("kafka")).isNull();
+        assertThat(cache.complete(inFlight, 5L)).isEqualTo(5L);
+        assertThat(cache.get("streams")).isNull();
+    }
+
+    @Test
+    void abortedLoadDoesNotKeepRecordingUpdates() {
+        WordCountNearCache.Load load = cache.beginLoad("kafka");
+        cache.abort(load);
+        cache.onCountUpdate(update("kafka", 7L));
+
+        assertThat(cache.complete(cache.beginLoad("kafka"), 3L)).isEqualTo(3L);
+    }
+
+    private static ConsumerRecord<String, Long> update(String word, long count) {
+        return new ConsumerRecord<>("word-count-output", 0, 0L, word, count);
+    }
+}
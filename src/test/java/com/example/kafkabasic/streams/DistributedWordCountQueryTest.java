@@ -0,0 +1,126 @@
+package com.example.kafkabasic.streams;
+
+import com.example.kafkabasic.KafkaBasicApplication;
+import com.example.kafkabasic.config.KafkaStreamsConfig;
+import com.example.kafkabasic.service.WordCountQueryService;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 두 애플리케이션 인스턴스가 word-count 파티션을 나눠 가질 때,
+ * 어느 인스턴스에 조회하든 다른 인스턴스가 소유한 단어까지 정확한 출현 횟수를 반환하고,
+ * 파티션을 갖고 있지 않은 인스턴스의 로컬 조회는 0 대신 예외가 발생하는지 검증합니다.
+ */
+@EmbeddedKafka(
+        partitions = 4,
+        topics = {"word-count-input", "word-count-output"},
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+class DistributedWordCountQueryTest {
+
+    private static final List<String> WORDS = List.of(
+            "kafka", "streams", "query", "routing", "partition", "state", "store", "replica");
+
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    @AfterEach
+    void closeInstances() {
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void routesLookupsToOwningInstance(EmbeddedKafkaBroker broker, @TempDir Path stateDir) throws IOException {
+        int firstPort = freePort();
+        WordCountQueryService first = startInstance(broker, stateDir, "a", firstPort);
+        WordCountQueryService second = startInstance(broker, stateDir, "b", freePort());
+
+        // 두 인스턴스 모두 RUNNING이 되어 파티션이 나뉠 때까지 대기
+        await().atMost(Duration.ofSeconds(60)).until(() -> instances.stream()
+                .map(context -> context.getBean(StreamsPipelineRegistry.class).kafkaStreams(KafkaStreamsConfig.WORD_COUNT))
+                .allMatch(streams -> streams != null && streams.state() == KafkaStreams.State.RUNNING
+                        && streams.metadataForLocalThreads().stream().anyMatch(thread -> !thread.activeTasks().isEmpty())));
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer())) {
+            for (int i = 0; i < WORDS.size(); i++) {
+                // i번째 단어는 i + 1번 등장
+                for (int n = 0; n <= i; n++) {
+                    producer.send(new ProducerRecord<>("word-count-input", WORDS.get(i)));
+                }
+            }
+            producer.flush();
+        }
+
+        await().atMost(Duration.ofSeconds(60)).pollInterval(Duration.ofMillis(500)).untilAsserted(() -> {
+            for (WordCountQueryService service : List.of(first, second)) {
+                Map<String, Long> counts = service.getCounts(WORDS);
+                for (int i = 0; i < WORDS.size(); i++) {
+                    assertThat(counts).containsEntry(WORDS.get(i), (long) i + 1);
+                }
+                assertThat(service.getCount("replica")).isEqualTo(WORDS.size());
+                assertThat(service.topWords(1)).first()
+                        .satisfies(top -> assertThat(top.key).isEqualTo("replica"));
+            }
+        });
+
+        // 파티션을 갖고 있지 않은 인스턴스의 로컬 조회는 0이 아니라 예외 (내부 API에서는 503)
+        KafkaStreams firstStreams = instances.get(0).getBean(StreamsPipelineRegistry.class)
+                .kafkaStreams(KafkaStreamsConfig.WORD_COUNT);
+        for (String word : WORDS) {
+            KeyQueryMetadata metadata = firstStreams.queryMetadataForKey(
+                    WordCountStream.COUNTS_STORE, word, new StringSerializer());
+            WordCountQueryService nonOwner = metadata.activeHost().port() == firstPort ? second : first;
+            assertThatThrownBy(() -> nonOwner.getLocalCounts(Map.of(word, metadata.partition()), false))
+                    .isInstanceOf(InvalidStateStoreException.class);
+        }
+    }
+
+    private WordCountQueryService startInstance(EmbeddedKafkaBroker broker, Path stateDir, String id, int port) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(KafkaBasicApplication.class)
+                .properties(
+                        "server.port=" + port,
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "app.kafka.streams.application-server=localhost:" + port,
+                        "app.kafka.streams.state-dir=" + stateDir.resolve(id),
+                        "app.kafka.transactional.id-prefix=tx-producer-" + id + "-",
+                        "app.kafka.streams.word-count.combiner.flush-interval-ms=100",
+                        "app.kafka.streams.word-count.near-cache.enabled=false",
+                        "app.kafka.streams.pipelines.word-count.num-stream-threads=1",
+                        "app.kafka.streams.pipelines.data-transformation.auto-startup=false",
+                        "app.kafka.streams.pipelines.notification.auto-startup=false",
+                        "app.kafka.streams.pipelines.transaction-filter.auto-startup=false",
+                        "app.kafka.streams.pipelines.trending-words.auto-startup=false")
+                .run();
+        instances.add(context);
+        return context.getBean(WordCountQueryService.class);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
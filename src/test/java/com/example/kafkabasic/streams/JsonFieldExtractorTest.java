@@ -0,0 +1,50 @@
+package com.example.kafkabasic.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFieldExtractorTest {
+
+    private static final JsonFieldExtractor AMOUNT = JsonFieldExtractor.forField("amount");
+
+    @Test
+    void readsTopLevelNumber() {
+        assertThat(extract("{\"id\":\"tx-1\",\"amount\":1500000}")).isEqualTo(1500000.0);
+        assertThat(extract("{ \"amount\" : -12.5 }")).isEqualTo(-12.5);
+        assertThat(extract("{\"amount\":1.5e3}")).isEqualTo(1500.0);
+        assertThat(extract("{\"amount\":0.1}")).isEqualTo(0.1);
+    }
+
+    @Test
+    void readsNumericString() {
+        assertThat(extract("{\"amount\":\"500000\"}")).isEqualTo(500000.0);
+    }
+
+    @Test
+    void ignoresNestedFieldsAndEscapedStrings() {
+        String json = "{\"meta\":{\"amount\":1},\"note\":\"\\\"amount\\\":2\",\"list\":[{\"amount\":3}],\"amount\":4}";
+        assertThat(extract(json)).isEqualTo(4.0);
+    }
+
+    @Test
+    void returnsDefaultWhenMissingOrInvalid() {
+        assertThat(extract("{\"id\":\"tx-1\"}")).isEqualTo(-1.0);
+        assertThat(extract("{\"amount\":\"abc\"}")).isEqualTo(-1.0);
+        assertThat(extract("{\"amount\":null}")).isEqualTo(-1.0);
+        assertThat(extract("not json")).isEqualTo(-1.0);
+        assertThat(extract("{\"amount\":")).isEqualTo(-1.0);
+        assertThat(AMOUNT.extractDouble(null, -1.0)).isEqualTo(-1.0);
+    }
+
+    @Test
+    void fallsBackForLongMantissa() {
+        assertThat(extract("{\"amount\":12345678901234567890.5}")).isEqualTo(12345678901234567890.5);
+    }
+
+    private static double extract(String json) {
+        return AMOUNT.extractDouble(json.getBytes(StandardCharsets.UTF_8), -1.0);
+    }
+}
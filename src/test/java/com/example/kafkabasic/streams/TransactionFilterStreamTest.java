@@ -0,0 +1,81 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 금액에 따른 라우팅과, 금액을 읽을 수 없는 메시지가 어느 토픽으로도 전송되지 않는지 검증합니다.
+ */
+class TransactionFilterStreamTest {
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> input;
+    private TestOutputTopic<String, byte[]> high;
+    private TestOutputTopic<String, byte[]> medium;
+    private TestOutputTopic<String, byte[]> low;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        new TransactionFilterStream().buildPipeline(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "transaction-filter-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props);
+
+        input = driver.createInputTopic("transaction-input", new StringSerializer(), new StringSerializer());
+        high = driver.createOutputTopic("high-amount-transactions", new StringDeserializer(), new ByteArrayDeserializer());
+        medium = driver.createOutputTopic("medium-amount-transactions", new StringDeserializer(), new ByteArrayDeserializer());
+        low = driver.createOutputTopic("low-amount-transactions", new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void routesByAmountAndKeepsOriginalBytes() {
+        String highJson = "{\"transactionId\":\"tx-1\",\"amount\":1500000}";
+        input.pipeInput("tx-1", highJson);
+        input.pipeInput("tx-2", "{\"transactionId\":\"tx-2\",\"amount\":\"250000\"}");
+        input.pipeInput("tx-3", "{\"transactionId\":\"tx-3\",\"amount\":0}");
+
+        assertThat(high.readValuesToList()).singleElement()
+                .satisfies(value -> assertThat(new String(value, StandardCharsets.UTF_8)).isEqualTo(highJson));
+        assertThat(medium.readKeyValuesToList()).extracting(keyValue -> keyValue.key).containsExactly("tx-2");
+        assertThat(low.readKeyValuesToList()).extracting(keyValue -> keyValue.key).containsExactly("tx-3");
+    }
+
+    @Test
+    void dropsRecordsWithoutReadableAmount() {
+        for (String invalid : List.of(
+                "{\"transactionId\":\"tx-4\"}",
+                "{\"transactionId\":\"tx-5\",\"amount\":\"abc\"}",
+                "{\"transactionId\":\"tx-6\",\"amount\":null}",
+                "not json")) {
+            input.pipeInput("invalid", invalid);
+        }
+        input.pipeInput("null", (String) null);
+
+        assertThat(high.isEmpty()).isTrue();
+        assertThat(medium.isEmpty()).isTrue();
+        assertThat(low.isEmpty()).isTrue();
+    }
+}
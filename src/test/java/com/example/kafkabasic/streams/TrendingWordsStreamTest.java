@@ -0,0 +1,107 @@
+package com.example.kafkabasic.streams;
+
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.errors.StreamsException;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.WindowedSerdes;
+import org.apache.kafka.streams.state.WindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 윈도우 집계가 유예 시간 안의 늦은 레코드는 반영하고 그 이후의 레코드는 버리며,
+ * suppress가 윈도우가 닫힌 뒤 최종 결과만 내보내고 버퍼 한도를 넘으면 중지하는지 검증합니다.
+ * (윈도우 1분, 호핑 간격 30초, 유예 시간 10초)
+ */
+class TrendingWordsStreamTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, String> input;
+    private TestOutputTopic<Windowed<String>, Long> tumbling;
+    private TestOutputTopic<Windowed<String>, Long> hopping;
+
+    @AfterEach
+    void tearDown() {
+        if (driver != null) {
+            driver.close();
+        }
+    }
+
+    @Test
+    void emitsOnlyFinalCountsAfterGraceAndDropsLateRecords() {
+        start(1000);
+
+        input.pipeInput(null, "Kafka streams", Instant.ofEpochMilli(0));
+        input.pipeInput(null, "kafka", Instant.ofEpochMilli(30_000));
+        // 윈도우 [0, 60s)는 끝났지만 유예 시간(70s까지)이 남아 있어 아직 출력하지 않음
+        input.pipeInput(null, "other", Instant.ofEpochMilli(65_000));
+        assertThat(tumbling.isEmpty()).isTrue();
+        assertThat(hopping.isEmpty()).isTrue();
+
+        // 유예 시간 안에 늦게 도착한 레코드는 반영
+        input.pipeInput(null, "kafka", Instant.ofEpochMilli(50_000));
+        // 스트림 시간이 윈도우 끝 + 유예 시간에 도달하면 최종 결과 1건씩 출력
+        input.pipeInput(null, "other", Instant.ofEpochMilli(70_000));
+
+        assertThat(results(tumbling)).containsExactlyInAnyOrder("kafka@0=3", "streams@0=1");
+        // 호핑 윈도우는 30초마다 시작하므로 [0, 60s)만 닫힘 ([30s, 90s)는 아직 열려 있음)
+        assertThat(results(hopping)).containsExactlyInAnyOrder("kafka@0=3", "streams@0=1");
+
+        // 유예 시간이 지난 뒤 도착한 레코드는 버림 (저장소와 출력 모두 그대로)
+        input.pipeInput(null, "kafka", Instant.ofEpochMilli(10_000));
+        assertThat(tumbling.isEmpty()).isTrue();
+        WindowStore<String, Long> store = driver.getWindowStore(TrendingWordsStream.TUMBLING_STORE);
+        assertThat(store.fetch("kafka", 0)).isEqualTo(3L);
+    }
+
+    @Test
+    void stopsWhenSuppressBufferIsFull() {
+        start(1);
+
+        input.pipeInput(null, "kafka", Instant.ofEpochMilli(0));
+        // 닫히지 않은 윈도우의 두 번째 단어로 버퍼 한도(1건)를 넘김
+        assertThatThrownBy(() -> input.pipeInput(null, "streams", Instant.ofEpochMilli(1_000)))
+                .isInstanceOf(StreamsException.class);
+    }
+
+    private void start(long suppressMaxRecords) {
+        StreamsBuilder builder = new StreamsBuilder();
+        new TrendingWordsStream(WINDOW_MS, 30_000, 10_000, 3_600_000, suppressMaxRecords, 1_048_576, List.of(), 1)
+                .buildPipeline(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "trending-words-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props);
+
+        input = driver.createInputTopic("word-count-input", new StringSerializer(), new StringSerializer());
+        tumbling = driver.createOutputTopic("trending-words-output",
+                WindowedSerdes.timeWindowedSerdeFrom(String.class, WINDOW_MS).deserializer(), new LongDeserializer());
+        hopping = driver.createOutputTopic("trending-words-hopping-output",
+                WindowedSerdes.timeWindowedSerdeFrom(String.class, WINDOW_MS).deserializer(), new LongDeserializer());
+    }
+
+    /**
+     * 출력 레코드를 "단어@윈도우 시작=횟수" 형식으로 변환
+     */
+    private static List<String> results(TestOutputTopic<Windowed<String>, Long> topic) {
+        return topic.readKeyValuesToList().stream()
+                .map(record -> record.key.key() + "@" + record.key.window().start() + "=" + record.value)
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.kafkabasic.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordTokenizerTest {
+
+    @Test
+    void splitsAndLowercases() {
+        assertThat(tokenize(new WordTokenizer(List.of(), 1), "Hello, Kafka-Streams!  hello_world 42"))
+                .containsExactly("hello", "kafka", "streams", "hello_world", "42");
+    }
+
+    @Test
+    void keepsUnicodeWords() {
+        assertThat(tokenize(new WordTokenizer(List.of(), 1), "카프카 스트림, Ünïcode 𝐀b"))
+                .containsExactly("카프카", "스트림", "ünïcode", "𝐀b");
+    }
+
+    @Test
+    void appliesStopwordsAndMinLength() {
+        WordTokenizer tokenizer = new WordTokenizer(List.of("the", "and"), 2);
+        assertThat(tokenize(tokenizer, "The cat and a dog"))
+                .containsExactly("cat", "dog");
+    }
+
+    @Test
+    void ignoresEmptyInput() {
+        WordTokenizer tokenizer = new WordTokenizer(List.of(), 1);
+        assertThat(tokenize(tokenizer, "")).isEmpty();
+        assertThat(tokenize(tokenizer, " ,.! ")).isEmpty();
+        assertThat(tokenize(tokenizer, null)).isEmpty();
+    }
+
+    private static List<String> tokenize(WordTokenizer tokenizer, String text) {
+        List<String> words = new ArrayList<>();
+        tokenizer.tokenize(text, words::add);
+        return words;
+    }
+}